@@ -0,0 +1,175 @@
+package bot;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Move;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.book.OpeningBook;
+import dataaccess.DAOFactory;
+import model.GameData;
+
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thinks up moves for computer players (see {@link GameData#BOT_USERNAME}) off
+ * the request threads.
+ * <p>
+ * Requests wait in one first-come, first-served queue for a fixed pool of
+ * low-priority worker threads, and a game has at most one request waiting, so
+ * no game can crowd out the others. The pool is kept smaller than the machine
+ * so human requests and the Jetty I/O threads always find a free core. Each
+ * move gets a time budget that shrinks as the queue grows, trading strength for
+ * throughput when many bot games are running. Games that find the queue full
+ * are put aside and queued again as workers free up. With an opening book set,
+ * bots play book moves without searching for as long as the book knows the game.
+ */
+public class BotScheduler {
+
+  /**
+   * Plays a bot's move through the same path as a player's move
+   */
+  public interface MoveSink {
+    void makeMove(Integer gameID, ChessMove move) throws Exception;
+  }
+
+  public static final long DEFAULT_MOVE_MILLIS = 1000;
+  public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+  private static final long MIN_MOVE_MILLIS = 20;
+  private static final int HASH_MEGABYTES = 8;
+
+  private final DAOFactory daoFactory;
+  private final MoveSink moveSink;
+  private final int workers;
+  private final long moveMillis;
+  private final ThreadPoolExecutor pool;
+  private final Set<Integer> pendingGames = ConcurrentHashMap.newKeySet();
+  // Games turned away by a full queue, oldest first; they stay in pendingGames
+  private final Deque<Integer> deferredGames = new ConcurrentLinkedDeque<>();
+  private final ThreadLocal<Engine> engines = ThreadLocal.withInitial(() -> new Engine(HASH_MEGABYTES));
+  private volatile OpeningBook book;
+
+  public BotScheduler(DAOFactory daoFactory, MoveSink moveSink) {
+    this(daoFactory, moveSink, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+        DEFAULT_MOVE_MILLIS, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * @param workers       the number of bot moves thought about at once
+   * @param moveMillis    the time a bot may think when nothing else is waiting
+   * @param queueCapacity the most games that may wait for a worker
+   */
+  public BotScheduler(DAOFactory daoFactory, MoveSink moveSink, int workers, long moveMillis, int queueCapacity) {
+    this.daoFactory = daoFactory;
+    this.moveSink = moveSink;
+    this.workers = workers;
+    this.moveMillis = moveMillis;
+    AtomicInteger threadCount = new AtomicInteger();
+    pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+      Thread thread = new Thread(runnable, "bot-worker-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    });
+  }
+
+  /**
+   * Asks for a move in a game if a bot is to move in it. Returns at once.
+   *
+   * @return false if too many games are already waiting, in which case the
+   * request is queued once a worker frees up
+   */
+  public boolean request(Integer gameID) {
+    if (!pendingGames.add(gameID)) {
+      return true;
+    }
+    try {
+      pool.execute(() -> think(gameID));
+      return true;
+    } catch (RejectedExecutionException e) {
+      deferredGames.addLast(gameID);
+      // The queue may have drained before the game was put aside
+      queueDeferred();
+      return false;
+    }
+  }
+
+  /**
+   * @param book the book to play the opening from, or null for none
+   */
+  public void setOpeningBook(OpeningBook book) {
+    this.book = book;
+  }
+
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private void think(Integer gameID) {
+    boolean pending = true;
+    try {
+      // The game may have moved on while the request waited
+      GameData gameData = daoFactory.getGameDAO().getGameData(gameID);
+      if (gameData == null || gameData.game().isGameOver()
+          || !GameData.BOT_USERNAME.equals(gameData.usernameToMove())) {
+        return;
+      }
+      // Search a copy, since the stored game may be read by request threads meanwhile
+      ChessGame game = gameData.game().copy();
+      OpeningBook openingBook = book;
+      int bookMove = openingBook != null ? openingBook.pick(game, ThreadLocalRandom.current()) : Move.NONE;
+      ChessMove move = bookMove != Move.NONE ? Move.toChessMove(bookMove)
+          : engines.get().search(game, SearchLimits.time(moveBudget())).getBestMove();
+      if (move == null) {
+        return;
+      }
+      // The reply may come in as soon as the move is broadcast, and must find the game free to request again
+      pendingGames.remove(gameID);
+      pending = false;
+      moveSink.makeMove(gameID, move);
+    } catch (Exception e) {
+      System.out.println(e.getMessage());
+    } finally {
+      if (pending) {
+        pendingGames.remove(gameID);
+      }
+      queueDeferred();
+    }
+  }
+
+  /**
+   * Moves games put aside by a full queue into the queue while it has room
+   */
+  private void queueDeferred() {
+    Integer gameID;
+    while (!pool.isShutdown() && (gameID = deferredGames.pollFirst()) != null) {
+      Integer deferredID = gameID;
+      try {
+        pool.execute(() -> think(deferredID));
+      } catch (RejectedExecutionException e) {
+        deferredGames.addFirst(deferredID);
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return the thinking time for the next move, shared out so the games
+   * waiting now are all answered in about one full budget
+   */
+  private long moveBudget() {
+    int waiting = pool.getQueue().size();
+    return Math.max(MIN_MOVE_MILLIS, moveMillis * workers / (workers + waiting));
+  }
+}
@@ -1,5 +1,7 @@
 package server;
 
+import bot.BotScheduler;
+import chess.engine.book.OpeningBook;
 import com.google.gson.Gson;
 import dataaccess.DAOFactory;
 import dataaccess.DataAccessException;
@@ -14,13 +16,20 @@ import service.GameService;
 import service.UserService;
 import spark.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 public class Server {
 
+  /** The system property naming an opening book file for the computer players */
+  public static final String BOOK_PROPERTY = "chess.book";
+
   private final DAOFactory daoFactory = new SqlDAOFactory();
   private final UserService userService = new UserService(daoFactory);
   private final GameService gameService = new GameService(daoFactory);
   private final ClearService clearService = new ClearService(daoFactory);
   private final Gson serializer = new Gson();
+  private BotScheduler botScheduler;
 
   public int run(int desiredPort) {
     Spark.port(desiredPort);
@@ -31,6 +40,16 @@ public class Server {
     // Register your endpoints and handle exceptions here.
     WebsocketHandler websocketHandler = new WebsocketHandler();
     websocketHandler.setDaoFactory(daoFactory);
+    botScheduler = new BotScheduler(daoFactory, websocketHandler::makeBotMove);
+    String bookFile = System.getProperty(BOOK_PROPERTY);
+    if (bookFile != null) {
+      try {
+        botScheduler.setOpeningBook(OpeningBook.open(Path.of(bookFile)));
+      } catch (IOException e) {
+        System.out.println("Unable to open the opening book: " + e.getMessage());
+      }
+    }
+    websocketHandler.setBotScheduler(botScheduler);
     Spark.webSocket("/ws", websocketHandler);
 
     Spark.delete("/db", (request, response) -> {
@@ -77,6 +96,14 @@ public class Server {
       return "{}";
     });
 
+    Spark.put("/game/bot", (request, response) -> {
+      String token = request.headers("authorization");
+      JoinGameRequest joinGameRequest = serializer.fromJson(request.body(), JoinGameRequest.class);
+      gameService.addBot(joinGameRequest, token);
+      botScheduler.request(joinGameRequest.gameID());
+      return "{}";
+    });
+
     Spark.exception(BadRequestException.class, this::exceptionHandler);
     Spark.exception(UnauthorizedException.class, this::exceptionHandler);
     Spark.exception(AlreadyTakenException.class, this::exceptionHandler);
@@ -98,6 +125,9 @@ public class Server {
   }
 
   public void stop() {
+    if (botScheduler != null) {
+      botScheduler.shutdown();
+    }
     Spark.stop();
     Spark.awaitStop();
   }
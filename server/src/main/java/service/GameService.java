@@ -85,4 +85,44 @@ public class GameService {
     }
     // do nothing; observer.
   }
+
+  /**
+   * Seats a computer player in a game
+   */
+  public void addBot(JoinGameRequest joinGameRequest, String authToken) throws Exception {
+    if (daoFactory.getAuthDAO().getAuthData(authToken) == null) {
+      throw new UnauthorizedException();
+    }
+    if (joinGameRequest.gameID() == null || joinGameRequest.playerColor() == null) {
+      throw new BadRequestException();
+    }
+    GameData dbGameData = daoFactory.getGameDAO().getGameData(joinGameRequest.gameID());
+    if (dbGameData == null) {
+      throw new BadRequestException();
+    }
+    String color = joinGameRequest.playerColor().toLowerCase();
+    if (color.equals("white")) {
+      if (dbGameData.whiteUsername() != null) {
+        throw new AlreadyTakenException();
+      }
+      if (GameData.BOT_USERNAME.equals(dbGameData.blackUsername())) {
+        throw new BadRequestException("Error: a computer player cannot play itself");
+      }
+      daoFactory.getGameDAO().updateGameData(new GameData(
+          dbGameData.gameID(), GameData.BOT_USERNAME, dbGameData.blackUsername(), dbGameData.gameName(), dbGameData.game()
+      ));
+    } else if (color.equals("black")) {
+      if (dbGameData.blackUsername() != null) {
+        throw new AlreadyTakenException();
+      }
+      if (GameData.BOT_USERNAME.equals(dbGameData.whiteUsername())) {
+        throw new BadRequestException("Error: a computer player cannot play itself");
+      }
+      daoFactory.getGameDAO().updateGameData(new GameData(
+          dbGameData.gameID(), dbGameData.whiteUsername(), GameData.BOT_USERNAME, dbGameData.gameName(), dbGameData.game()
+      ));
+    } else {
+      throw new BadRequestException();
+    }
+  }
 }
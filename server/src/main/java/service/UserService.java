@@ -5,6 +5,7 @@ import response.BadRequestException;
 import response.UnauthorizedException;
 import dataaccess.DAOFactory;
 import model.AuthData;
+import model.GameData;
 import model.UserData;
 import org.mindrot.jbcrypt.BCrypt;
 
@@ -20,7 +21,8 @@ public class UserService {
     if (userData.username() == null || userData.password() == null || userData.email() == null) {
       throw new BadRequestException();
     }
-    if (daoFactory.getUserDAO().getUserData(userData.username()) != null) {
+    if (userData.username().equals(GameData.BOT_USERNAME)
+        || daoFactory.getUserDAO().getUserData(userData.username()) != null) {
       throw new AlreadyTakenException();
     }
     String hashedPassword = BCrypt.hashpw(userData.password(), BCrypt.gensalt());
@@ -4,15 +4,16 @@ import com.google.gson.Gson;
 import websocket.messages.ServerMessage;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ConnectionManager {
 
   private final Gson serializer = new Gson();
-  private final Map<Integer, List<Connection>> connections = new HashMap<>();
+  // Bot moves are broadcast from worker threads while request threads add and remove connections
+  private final Map<Integer, List<Connection>> connections = new ConcurrentHashMap<>();
 
   public void broadcast(Integer gameID, String ignoredAuthToken, ServerMessage serverMessage) {
     List<Connection> gameConnections = connections.get(gameID);
@@ -31,25 +32,13 @@ public class ConnectionManager {
   }
 
   public void addConnection(Integer gameID, Connection connection) {
-    List<Connection> gameConnections = connections.get(gameID);
-    if (gameConnections == null) {
-      gameConnections = new LinkedList<>();
-      connections.put(gameID, gameConnections);
-    }
-    gameConnections.add(connection);
+    connections.computeIfAbsent(gameID, id -> new CopyOnWriteArrayList<>()).add(connection);
   }
 
   public void removeConnection(Integer gameID, String authToken) {
     List<Connection> gameConnections = connections.get(gameID);
-    int index = -1;
-    for (int i = 0; i < gameConnections.size(); i++) {
-      if (gameConnections.get(i).authToken().equals(authToken)) {
-        index = i;
-        break;
-      }
-    }
-    if (index != -1) {
-      gameConnections.remove(index);
+    if (gameConnections != null) {
+      gameConnections.removeIf(connection -> connection.authToken().equals(authToken));
     }
   }
 
@@ -1,6 +1,9 @@
 package websocket;
 
+import bot.BotScheduler;
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameStatus;
 import chess.InvalidMoveException;
 import com.google.gson.Gson;
 import dataaccess.DAOFactory;
@@ -20,11 +23,16 @@ public class WebsocketHandler {
   private final ConnectionManager connectionManager = new ConnectionManager();
 
   private DAOFactory daoFactory;
+  private BotScheduler botScheduler;
 
   public void setDaoFactory(DAOFactory daoFactory) {
     this.daoFactory = daoFactory;
   }
 
+  public void setBotScheduler(BotScheduler botScheduler) {
+    this.botScheduler = botScheduler;
+  }
+
   @OnWebSocketMessage
   public void onMessage(Session session, String message) throws Exception {
     try {
@@ -86,6 +94,8 @@ public class WebsocketHandler {
     connectionManager.broadcast(connectCommand.gameID, connectCommand.getAuthString(), notification);
     connectionManager.addConnection(connectCommand.gameID, new Connection(connectCommand.getAuthString(), session));
 
+    // 3
+    requestBotMove(gameData);
   }
 
   private void handleLeave(LeaveCommand leaveCommand) throws Exception {
@@ -138,29 +148,46 @@ public class WebsocketHandler {
   }
 
   private void handleMakeMove(Session session, MakeMoveCommand makeMoveCommand) throws Exception {
-    GameData gameData = daoFactory.getGameDAO().getGameData(makeMoveCommand.gameID);
     AuthData authData = daoFactory.getAuthDAO().getAuthData(makeMoveCommand.getAuthString());
+    makeMove(makeMoveCommand.gameID, authData.username(), makeMoveCommand.getAuthString(), makeMoveCommand.move);
+  }
+
+  /**
+   * Plays a computer player's move, with the same checks and messages as a
+   * player's move
+   */
+  public void makeBotMove(Integer gameID, ChessMove move) throws Exception {
+    makeMove(gameID, GameData.BOT_USERNAME, null, move);
+  }
+
+  /**
+   * @param authToken the mover's connection, which is not sent the move
+   *                  notification, or null to send it to everyone
+   */
+  private void makeMove(Integer gameID, String username, String authToken, ChessMove move) throws Exception {
+    GameData gameData = daoFactory.getGameDAO().getGameData(gameID);
 
     if (gameData.game().isGameOver()) {
       throw new Exception("Game is over. Go home newbie");
     }
 
-    if (!authData.username().equals(gameData.whiteUsername()) &&
-        !authData.username().equals(gameData.blackUsername())) {
+    if (!username.equals(gameData.whiteUsername()) &&
+        !username.equals(gameData.blackUsername())) {
       throw new Exception("Observer cannot make a move");
     }
 
     // 1
     ChessGame chessGame = gameData.game();
-    if (authData.username().equals(gameData.whiteUsername()) && chessGame.getTeamTurn() == ChessGame.TeamColor.BLACK) {
+    if (username.equals(gameData.whiteUsername()) && chessGame.getTeamTurn() == ChessGame.TeamColor.BLACK) {
       throw new Exception("Can't make a move for the black team");
-    } else if (authData.username().equals(gameData.blackUsername()) && chessGame.getTeamTurn() == ChessGame.TeamColor.WHITE) {
+    } else if (username.equals(gameData.blackUsername()) && chessGame.getTeamTurn() == ChessGame.TeamColor.WHITE) {
       throw new Exception("Can't make a move for the white team");
     } // could use an or I don't care
+    GameStatus gameStatus;
     try {
-      chessGame.makeMove(makeMoveCommand.move);
-      if (chessGame.isInCheckmate(ChessGame.TeamColor.BLACK) || chessGame.isInCheckmate(ChessGame.TeamColor.WHITE)) {
-        // should do stalemate check but I don't care
+      chessGame.makeMove(move);
+      gameStatus = chessGame.getGameStatus();
+      if (gameStatus.isGameOver()) {
         chessGame.setGameOver(true);
       }
 
@@ -173,24 +200,39 @@ public class WebsocketHandler {
 
     // 3
     LoadGameSM loadGameSM = new LoadGameSM(chessGame);
-    connectionManager.broadcast(makeMoveCommand.gameID, null, loadGameSM);
+    connectionManager.broadcast(gameID, null, loadGameSM);
 
     // 4
-    NotificationSM notificationSM = new NotificationSM(authData.username() + " made a move");
-    connectionManager.broadcast(makeMoveCommand.gameID, makeMoveCommand.getAuthString(), notificationSM);
+    NotificationSM notificationSM = new NotificationSM(username + " made a move");
+    connectionManager.broadcast(gameID, authToken, notificationSM);
 
     // 5
-    String team;
-    if (chessGame.isInCheckmate(ChessGame.TeamColor.WHITE) || chessGame.isInCheckmate(ChessGame.TeamColor.BLACK)) {
-      team = chessGame.isInCheckmate(ChessGame.TeamColor.WHITE) ? "White" : "Black";
-      notificationSM = new NotificationSM(team + " is in checkmate");
-      connectionManager.broadcast(makeMoveCommand.gameID, null, notificationSM);
-    }  else if (chessGame.isInCheck(ChessGame.TeamColor.WHITE) || chessGame.isInCheck(ChessGame.TeamColor.BLACK)) {
-      team = chessGame.isInCheck(ChessGame.TeamColor.WHITE) ? "White" : "Black";
-      notificationSM = new NotificationSM(team + " is in check");
-      connectionManager.broadcast(makeMoveCommand.gameID, null, notificationSM);
+    String team = gameStatus.teamTurn() == ChessGame.TeamColor.WHITE ? "White" : "Black";
+    String statusMessage = switch (gameStatus.state()) {
+      case CHECKMATE -> team + " is in checkmate";
+      case STALEMATE -> team + " is in stalemate";
+      case THREEFOLD_REPETITION -> "The game is drawn by threefold repetition";
+      case FIFTY_MOVE_RULE -> "The game is drawn by the fifty-move rule";
+      case INSUFFICIENT_MATERIAL -> "The game is drawn, neither side has enough material to checkmate";
+      case CHECK -> team + " is in check";
+      case NORMAL -> null;
+    };
+    if (statusMessage != null) {
+      notificationSM = new NotificationSM(statusMessage);
+      connectionManager.broadcast(gameID, null, notificationSM);
     }
 
+    // 6
+    requestBotMove(gameData);
+  }
+
+  private void requestBotMove(GameData gameData) {
+    if (botScheduler != null && !gameData.game().isGameOver()
+        && GameData.BOT_USERNAME.equals(gameData.usernameToMove())
+        && !botScheduler.request(gameData.gameID())) {
+      connectionManager.broadcast(gameData.gameID(), null,
+          new NotificationSM("The computer player is busy and will move as soon as it can"));
+    }
   }
 
 }
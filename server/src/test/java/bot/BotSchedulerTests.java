@@ -0,0 +1,113 @@
+package bot;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Move;
+import chess.MoveList;
+import dataaccess.DAOFactory;
+import dataaccess.memory.MemoryDAOFactory;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BotSchedulerTests {
+
+  private static final long MOVE_MILLIS = 20;
+
+  private DAOFactory daoFactory;
+  private final Map<Integer, AtomicInteger> moveCounts = new ConcurrentHashMap<>();
+
+  @BeforeEach
+  void setUp() {
+    daoFactory = new MemoryDAOFactory();
+  }
+
+  @Test
+  void oneMovePerRequest() throws Exception {
+    Integer gameID = createBotGame();
+    CountDownLatch moves = new CountDownLatch(3);
+    BotScheduler[] scheduler = new BotScheduler[1];
+    // Reply at once and ask for the next move before makeMove returns, as the websocket handler does
+    scheduler[0] = new BotScheduler(daoFactory, (id, move) -> {
+      playMove(id, move);
+      moves.countDown();
+      if (moves.getCount() > 0) {
+        playReply(id);
+        scheduler[0].request(id);
+      }
+    }, 1, MOVE_MILLIS, 10);
+
+    try {
+      for (int i = 0; i < 3; i++) {
+        Assertions.assertTrue(scheduler[0].request(gameID));
+      }
+      Assertions.assertTrue(moves.await(10, TimeUnit.SECONDS), "The bot stopped answering");
+      Thread.sleep(MOVE_MILLIS * 10);
+      Assertions.assertEquals(3, moveCounts.get(gameID).get());
+      Assertions.assertEquals("player", daoFactory.getGameDAO().getGameData(gameID).usernameToMove());
+    } finally {
+      scheduler[0].shutdown();
+    }
+  }
+
+  @Test
+  void fullQueueRequestIsServedLater() throws Exception {
+    Integer first = createBotGame();
+    Integer second = createBotGame();
+    Integer third = createBotGame();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch moves = new CountDownLatch(3);
+    BotScheduler scheduler = new BotScheduler(daoFactory, (id, move) -> {
+      started.countDown();
+      Assertions.assertTrue(release.await(10, TimeUnit.SECONDS));
+      playMove(id, move);
+      moves.countDown();
+    }, 1, MOVE_MILLIS, 1);
+
+    try {
+      Assertions.assertTrue(scheduler.request(first));
+      Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+      Assertions.assertTrue(scheduler.request(second));
+      Assertions.assertFalse(scheduler.request(third));
+      release.countDown();
+      Assertions.assertTrue(moves.await(10, TimeUnit.SECONDS), "A request was dropped");
+      for (Integer gameID : new Integer[]{first, second, third}) {
+        Assertions.assertEquals(1, moveCounts.get(gameID).get());
+      }
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  private Integer createBotGame() throws Exception {
+    Integer gameID = daoFactory.getGameDAO().createGame("game");
+    GameData gameData = daoFactory.getGameDAO().getGameData(gameID);
+    daoFactory.getGameDAO().updateGameData(
+        new GameData(gameID, GameData.BOT_USERNAME, "player", gameData.gameName(), gameData.game()));
+    moveCounts.put(gameID, new AtomicInteger());
+    return gameID;
+  }
+
+  private void playMove(Integer gameID, ChessMove move) throws Exception {
+    ChessGame game = daoFactory.getGameDAO().getGameData(gameID).game();
+    Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn(), "The bot moved out of turn");
+    game.makeMove(move);
+    moveCounts.get(gameID).incrementAndGet();
+  }
+
+  private void playReply(Integer gameID) throws Exception {
+    ChessGame game = daoFactory.getGameDAO().getGameData(gameID).game();
+    MoveList moves = new MoveList();
+    game.generateValidMoves(game.getTeamTurn(), moves);
+    game.makeMove(Move.toChessMove(moves.get(0)));
+  }
+
+}
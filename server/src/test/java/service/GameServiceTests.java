@@ -0,0 +1,68 @@
+package service;
+
+import dataaccess.DAOFactory;
+import dataaccess.memory.MemoryDAOFactory;
+import model.GameData;
+import model.UserData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import request.CreateGameRequest;
+import request.JoinGameRequest;
+import response.AlreadyTakenException;
+import response.BadRequestException;
+import response.UnauthorizedException;
+
+public class GameServiceTests {
+
+  private DAOFactory daoFactory;
+  private GameService gameService;
+  private String authToken;
+  private Integer gameID;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    daoFactory = new MemoryDAOFactory();
+    gameService = new GameService(daoFactory);
+    authToken = new UserService(daoFactory).register(new UserData("player", "password", "player@example.com"))
+        .authToken();
+    gameID = gameService.createGame(new CreateGameRequest("game"), authToken).getGameID();
+  }
+
+  @Test
+  void addBotSeatsComputer() throws Exception {
+    gameService.joinGame(new JoinGameRequest("WHITE", gameID), authToken);
+    gameService.addBot(new JoinGameRequest("BLACK", gameID), authToken);
+
+    GameData gameData = daoFactory.getGameDAO().getGameData(gameID);
+    Assertions.assertEquals("player", gameData.whiteUsername());
+    Assertions.assertEquals(GameData.BOT_USERNAME, gameData.blackUsername());
+    Assertions.assertEquals("player", gameData.usernameToMove());
+  }
+
+  @Test
+  void addBotRefusesBothSeats() throws Exception {
+    gameService.addBot(new JoinGameRequest("WHITE", gameID), authToken);
+    Assertions.assertThrows(BadRequestException.class,
+        () -> gameService.addBot(new JoinGameRequest("BLACK", gameID), authToken));
+    Assertions.assertNull(daoFactory.getGameDAO().getGameData(gameID).blackUsername());
+  }
+
+  @Test
+  void addBotRefusesTakenSeat() throws Exception {
+    gameService.joinGame(new JoinGameRequest("WHITE", gameID), authToken);
+    Assertions.assertThrows(AlreadyTakenException.class,
+        () -> gameService.addBot(new JoinGameRequest("WHITE", gameID), authToken));
+  }
+
+  @Test
+  void addBotRefusesBadRequests() {
+    Assertions.assertThrows(UnauthorizedException.class,
+        () -> gameService.addBot(new JoinGameRequest("WHITE", gameID), "not a token"));
+    Assertions.assertThrows(BadRequestException.class,
+        () -> gameService.addBot(new JoinGameRequest("GREEN", gameID), authToken));
+    Assertions.assertThrows(BadRequestException.class,
+        () -> gameService.addBot(new JoinGameRequest("WHITE", gameID + 1), authToken));
+  }
+
+}
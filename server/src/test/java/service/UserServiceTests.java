@@ -1,7 +1,11 @@
 package service;
 
+import dataaccess.memory.MemoryDAOFactory;
+import model.GameData;
+import model.UserData;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import response.AlreadyTakenException;
 
 public class UserServiceTests {
 
@@ -10,4 +14,11 @@ public class UserServiceTests {
     Assertions.assertTrue(true);
   }
 
+  @Test
+  void registerRefusesBotUsername() {
+    UserService userService = new UserService(new MemoryDAOFactory());
+    Assertions.assertThrows(AlreadyTakenException.class,
+        () -> userService.register(new UserData(GameData.BOT_USERNAME, "password", "bot@example.com")));
+  }
+
 }
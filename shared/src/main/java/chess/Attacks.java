@@ -0,0 +1,239 @@
+package chess;
+
+/**
+ * Precomputed attack tables, built once when the class is loaded.
+ * <p>
+ * Knight, king and pawn attacks are plain per-square lookups. Rook and bishop
+ * attacks use magic bitboards: the relevant blockers of a square are multiplied
+ * by a magic number so that the top bits of the product index a table holding
+ * the attack set for that blocker configuration.
+ */
+public final class Attacks {
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, -1}, {-1, 1}};
+
+    // Found by trial with a seeded xorshift generator, sparse candidates and a
+    // collision check over every blocker subset. Storing them means class
+    // loading only fills the tables, which matters for short-lived processes.
+    private static final long[] ROOK_MAGIC_NUMBERS = {
+        0x0A80004000801220L, 0x8040004010002008L, 0x2080200010008008L, 0x1100100008210004L,
+        0xC200209084020008L, 0x2100010004000208L, 0x0400081000822421L, 0x0200010422048844L,
+        0x0800800080400024L, 0x0001402000401000L, 0x3000801000802001L, 0x4400800800100083L,
+        0x0904802402480080L, 0x4040800400020080L, 0x0018808042000100L, 0x4040800080004100L,
+        0x0040048001458024L, 0x00A0004000205000L, 0x3100808010002000L, 0x4825010010000820L,
+        0x5004808008000401L, 0x2024818004000A00L, 0x0005808002000100L, 0x2100060004806104L,
+        0x0080400880008421L, 0x4062220600410280L, 0x010A004A00108022L, 0x0000100080080080L,
+        0x0021000500080010L, 0x0044000202001008L, 0x0000100400080102L, 0xC020128200040545L,
+        0x0080002000400040L, 0x0000804000802004L, 0x0000120022004080L, 0x010A386103001001L,
+        0x9010080080800400L, 0x8440020080800400L, 0x0004228824001001L, 0x000000490A000084L,
+        0x0080002000504000L, 0x200020005000C000L, 0x0012088020420010L, 0x0010010080080800L,
+        0x0085001008010004L, 0x0002000204008080L, 0x0040413002040008L, 0x0000304081020004L,
+        0x0080204000800080L, 0x3008804000290100L, 0x1010100080200080L, 0x2008100208028080L,
+        0x5000850800910100L, 0x8402019004680200L, 0x0120911028020400L, 0x0000008044010200L,
+        0x0020850200244012L, 0x0020850200244012L, 0x0000102001040841L, 0x140900040A100021L,
+        0x000200282410A102L, 0x000200282410A102L, 0x000200282410A102L, 0x4048240043802106L,
+    };
+
+    private static final long[] BISHOP_MAGIC_NUMBERS = {
+        0x40106000A1160020L, 0x0020010250810120L, 0x2010010220280081L, 0x002806004050C040L,
+        0x0002021018000000L, 0x2001112010000400L, 0x0881010120218080L, 0x1030820110010500L,
+        0x0000120222042400L, 0x2000020404040044L, 0x8000480094208000L, 0x0003422A02000001L,
+        0x000A220210100040L, 0x8004820202226000L, 0x0018234854100800L, 0x0100004042101040L,
+        0x0004001004082820L, 0x0010000810010048L, 0x1014004208081300L, 0x2080818802044202L,
+        0x0040880C00A00100L, 0x0080400200522010L, 0x0001000188180B04L, 0x0080249202020204L,
+        0x1004400004100410L, 0x00013100A0022206L, 0x2148500001040080L, 0x4241080011004300L,
+        0x4020848004002000L, 0x10101380D1004100L, 0x0008004422020284L, 0x01010A1041008080L,
+        0x0808080400082121L, 0x0808080400082121L, 0x0091128200100C00L, 0x0202200802010104L,
+        0x8C0A020200440085L, 0x01A0008080B10040L, 0x0889520080122800L, 0x100902022202010AL,
+        0x04081A0816002000L, 0x0000681208005000L, 0x8170840041008802L, 0x0A00004200810805L,
+        0x0830404408210100L, 0x2602208106006102L, 0x1048300680802628L, 0x2602208106006102L,
+        0x0602010120110040L, 0x0941010801043000L, 0x000040440A210428L, 0x0008240020880021L,
+        0x0400002012048200L, 0x00AC102001210220L, 0x0220021002009900L, 0x84440C080A013080L,
+        0x0001008044200440L, 0x0004C04410841000L, 0x2000500104011130L, 0x1A0C010011C20229L,
+        0x0044800112202200L, 0x0434804908100424L, 0x0300404822C08200L, 0x48081010008A2A80L,
+    };
+
+    private static final Magic[] ROOK_MAGICS = new Magic[64];
+    private static final Magic[] BISHOP_MAGICS = new Magic[64];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    /**
+     * Lookup data for one square of one slider type
+     */
+    private record Magic(long mask, long magic, int shift, long[] attacks) {
+        long get(long occupied) {
+            return attacks[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+    }
+
+    static {
+        int[][] knightOffsets = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] kingOffsets = {{-1, 1}, {0, 1}, {1, 1}, {-1, 0}, {1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = offsetAttacks(square, knightOffsets);
+            KING[square] = offsetAttacks(square, kingOffsets);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = offsetAttacks(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = offsetAttacks(square, new int[][]{{-1, -1}, {-1, 1}});
+        }
+
+        for (int square = 0; square < 64; square++) {
+            ROOK_MAGICS[square] = magic(square, ROOK_DIRECTIONS, ROOK_MAGIC_NUMBERS[square]);
+            BISHOP_MAGICS[square] = magic(square, BISHOP_DIRECTIONS, BISHOP_MAGIC_NUMBERS[square]);
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                long ends = Bitboards.bit(from) | Bitboards.bit(to);
+                if (from == to) {
+                    continue;
+                }
+                if (Bitboards.contains(rook(from, 0), to)) {
+                    BETWEEN[from][to] = rook(from, Bitboards.bit(to)) & rook(to, Bitboards.bit(from));
+                    LINE[from][to] = (rook(from, 0) & rook(to, 0)) | ends;
+                } else if (Bitboards.contains(bishop(from, 0), to)) {
+                    BETWEEN[from][to] = bishop(from, Bitboards.bit(to)) & bishop(to, Bitboards.bit(from));
+                    LINE[from][to] = (bishop(from, 0) & bishop(to, 0)) | ends;
+                }
+            }
+        }
+    }
+
+    private Attacks() {}
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given team on the given square attacks
+     */
+    public static long pawn(ChessGame.TeamColor teamColor, int square) {
+        return PAWN[teamColor.ordinal()][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK_MAGICS[square].get(occupied);
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP_MAGICS[square].get(occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return ROOK_MAGICS[square].get(occupied) | BISHOP_MAGICS[square].get(occupied);
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared rank, file or
+     * diagonal, or no squares if they do not share one
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return every square of the rank, file or diagonal through both squares,
+     * or no squares if they do not share one
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * @return the squares a piece attacks from the given square, including squares
+     * held by either team
+     */
+    public static long of(ChessPiece piece, int square, long occupied) {
+        return switch (piece.getPieceType()) {
+            case KING -> KING[square];
+            case QUEEN -> queen(square, occupied);
+            case BISHOP -> bishop(square, occupied);
+            case KNIGHT -> KNIGHT[square];
+            case ROOK -> rook(square, occupied);
+            case PAWN -> PAWN[piece.getTeamColor().ordinal()][square];
+        };
+    }
+
+    private static long offsetAttacks(int square, int[][] offsets) {
+        int row = Bitboards.row(square);
+        int column = Bitboards.column(square);
+        long attacks = Bitboards.EMPTY;
+        for (int[] offset : offsets) {
+            if (onBoard(row + offset[0], column + offset[1])) {
+                attacks |= Bitboards.bit(Bitboards.square(row + offset[0], column + offset[1]));
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Walks each ray from a square one step at a time until it leaves the board or
+     * hits a blocker. Only used to fill the tables.
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = Bitboards.EMPTY;
+        for (int[] direction : directions) {
+            int row = Bitboards.row(square) + direction[0];
+            int column = Bitboards.column(square) + direction[1];
+            while (onBoard(row, column)) {
+                long bit = Bitboards.bit(Bitboards.square(row, column));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * @return the squares whose occupancy can change the attacks of a slider,
+     * which excludes the last square of each ray
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = Bitboards.EMPTY;
+        for (int[] direction : directions) {
+            int row = Bitboards.row(square) + direction[0];
+            int column = Bitboards.column(square) + direction[1];
+            while (onBoard(row + direction[0], column + direction[1])) {
+                mask |= Bitboards.bit(Bitboards.square(row, column));
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static boolean onBoard(int row, int column) {
+        return row >= 1 && row <= 8 && column >= 1 && column <= 8;
+    }
+
+    /**
+     * Fills the attack table of one square for a magic number
+     */
+    private static Magic magic(int square, int[][] directions, long magicNumber) {
+        long mask = relevantMask(square, directions);
+        int bits = Bitboards.count(mask);
+        long[] attacks = new long[1 << bits];
+        // Enumerate every subset of the mask with the carry-rippler trick
+        long subset = 0;
+        do {
+            attacks[(int) ((subset * magicNumber) >>> (64 - bits))] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+        return new Magic(mask, magicNumber, 64 - bits, attacks);
+    }
+}
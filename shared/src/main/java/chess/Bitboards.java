@@ -0,0 +1,88 @@
+package chess;
+
+/**
+ * Helpers for working with bitboards, where each of the 64 squares of the board
+ * maps to one bit of a long.
+ * <p>
+ * Squares are numbered 0 (a1, row 1 column 1) through 63 (h8, row 8 column 8),
+ * rank by rank, so that {@code square = (row - 1) * 8 + (column - 1)}.
+ */
+public final class Bitboards {
+
+    public static final long EMPTY = 0L;
+
+    /**
+     * Stand-in square index for "no square"
+     */
+    public static final int NO_SQUARE = -1;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_3 = RANK_1 << 16;
+    public static final long RANK_6 = RANK_1 << 40;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    /**
+     * The light squares, b1, d1, ..., a2, c2, ...
+     */
+    public static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    private Bitboards() {}
+
+    /**
+     * @return the square index for a 1-based row and column
+     */
+    public static int square(int row, int column) {
+        return (row - 1) * 8 + (column - 1);
+    }
+
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static ChessPosition position(int square) {
+        return ChessPosition.of(square);
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static boolean contains(long bitboard, int square) {
+        return (bitboard & (1L << square)) != 0;
+    }
+
+    /**
+     * @return the lowest set square of a non-empty bitboard
+     */
+    public static int first(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    /**
+     * @return the bitboard with its lowest set square cleared
+     */
+    public static long popFirst(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+}
@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.BitSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -15,10 +14,68 @@ public class ChessBoard {
 
     public static final Integer BOARD_SIZE = 8;
 
-    private final ChessPiece[][] board;
+    // Offsets of each piece type within a team's block of piece indices
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+    private static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal();
+    private static final int BISHOP = ChessPiece.PieceType.BISHOP.ordinal();
+    private static final int KNIGHT = ChessPiece.PieceType.KNIGHT.ordinal();
+    private static final int ROOK = ChessPiece.PieceType.ROOK.ordinal();
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    // Piece values for exchanges by piece type, with the king worth more than everything else together
+    private static final int[] EXCHANGE_VALUES = {20_000, 900, 330, 320, 500, 100};
+    // The order in which exchanges bring in attackers, least valuable first
+    private static final int[] EXCHANGE_ORDER = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING};
+    // An exchange on one square has at most 32 captures
+    private static final int MAX_EXCHANGE = 32;
+
+    private final byte[] mailbox;
+    private final long[] pieceBitboards;
+    private final long[] colorBitboards;
+    private long occupied;
+    private final int[] kingSquares;
+    private long positionKey;
+    private transient int version;
+    private transient PieceListener[] listeners;
+    private transient int[] exchangeGains;
+
+    /**
+     * Hears about every piece placed on or taken off the board, so that data
+     * derived from the pieces can be kept up to date move by move. Undoing a
+     * move puts and removes pieces the same way, so listeners see it too.
+     */
+    public interface PieceListener {
+
+        void pieceAdded(int square, int pieceIndex);
+
+        void pieceRemoved(int square, int pieceIndex);
+    }
 
     public ChessBoard() {
-        board = new ChessPiece[BOARD_SIZE][BOARD_SIZE];
+        mailbox = new byte[BOARD_SIZE * BOARD_SIZE];
+        Arrays.fill(mailbox, (byte) ChessPiece.NO_PIECE);
+        pieceBitboards = new long[ChessPiece.INDEX_COUNT];
+        colorBitboards = new long[2];
+        occupied = Bitboards.EMPTY;
+        kingSquares = new int[]{Bitboards.NO_SQUARE, Bitboards.NO_SQUARE};
+        positionKey = 0;
+        listeners = new PieceListener[0];
+        exchangeGains = new int[MAX_EXCHANGE];
+    }
+
+    /**
+     * Copies the pieces of another board with a few flat array copies. The copy
+     * has no piece listeners.
+     */
+    ChessBoard(ChessBoard other) {
+        mailbox = other.mailbox.clone();
+        pieceBitboards = other.pieceBitboards.clone();
+        colorBitboards = other.colorBitboards.clone();
+        occupied = other.occupied;
+        kingSquares = other.kingSquares.clone();
+        positionKey = other.positionKey;
+        listeners = new PieceListener[0];
+        exchangeGains = new int[MAX_EXCHANGE];
     }
 
     /**
@@ -28,7 +85,11 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = Bitboards.square(position);
+        removePiece(square);
+        if (piece != null) {
+            putPiece(square, piece.index());
+        }
     }
 
     /**
@@ -39,7 +100,292 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow()-1][position.getColumn()-1];
+        return getPiece(Bitboards.square(position));
+    }
+
+    /**
+     * @param square square index, see {@link Bitboards}
+     * @return the piece on the square, or null if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        int pieceIndex = mailbox[square];
+        return pieceIndex == ChessPiece.NO_PIECE ? null : ChessPiece.of(pieceIndex);
+    }
+
+    /**
+     * @param square square index, see {@link Bitboards}
+     * @return the index of the piece on the square, or {@link ChessPiece#NO_PIECE}
+     */
+    public int getPieceIndex(int square) {
+        return mailbox[square];
+    }
+
+    /**
+     * @param pieceIndex index of a color and piece type, see {@link ChessPiece#index()}
+     * @return the squares holding that kind of piece
+     */
+    public long getBitboard(int pieceIndex) {
+        return pieceBitboards[pieceIndex];
+    }
+
+    public long getBitboard(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return pieceBitboards[ChessPiece.index(teamColor, type)];
+    }
+
+    /**
+     * @return the squares holding any piece of the given team
+     */
+    public long getTeamBitboard(ChessGame.TeamColor teamColor) {
+        return colorBitboards[teamColor.ordinal()];
+    }
+
+    /**
+     * @return the squares holding any piece
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on the board, see {@link Zobrist}. It
+     * only covers piece placement; {@link ChessGame#positionKey()} adds the rest
+     * of the game state.
+     */
+    public long positionKey() {
+        return positionKey;
+    }
+
+    /**
+     * @return a counter that changes whenever a piece is placed or removed, so
+     * callers can tell whether results computed for the board are still current
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the square of the given team's king, or {@link Bitboards#NO_SQUARE}
+     * if it has none
+     */
+    public int getKingSquare(ChessGame.TeamColor teamColor) {
+        return kingSquares[teamColor.ordinal()];
+    }
+
+    /**
+     * Finds every piece attacking a square by probing outward from it: a piece
+     * attacks the square exactly when a piece of the same kind standing on the
+     * square would attack it (pawns being the mirror image for the other team)
+     *
+     * @param occupied the blockers to use for sliding pieces
+     * @return the squares of the attackers of both teams
+     */
+    public long getAttackers(int square, long occupied) {
+        return (Attacks.pawn(ChessGame.TeamColor.BLACK, square) & pieceBitboards[ChessPiece.WHITE_PAWN])
+            | (Attacks.pawn(ChessGame.TeamColor.WHITE, square) & pieceBitboards[ChessPiece.BLACK_PAWN])
+            | (Attacks.knight(square) & (pieceBitboards[ChessPiece.WHITE_KNIGHT] | pieceBitboards[ChessPiece.BLACK_KNIGHT]))
+            | (Attacks.king(square) & (pieceBitboards[ChessPiece.WHITE_KING] | pieceBitboards[ChessPiece.BLACK_KING]))
+            | (Attacks.bishop(square, occupied) & (pieceBitboards[ChessPiece.WHITE_BISHOP] | pieceBitboards[ChessPiece.BLACK_BISHOP]
+                | pieceBitboards[ChessPiece.WHITE_QUEEN] | pieceBitboards[ChessPiece.BLACK_QUEEN]))
+            | (Attacks.rook(square, occupied) & (pieceBitboards[ChessPiece.WHITE_ROOK] | pieceBitboards[ChessPiece.BLACK_ROOK]
+                | pieceBitboards[ChessPiece.WHITE_QUEEN] | pieceBitboards[ChessPiece.BLACK_QUEEN]));
+    }
+
+    /**
+     * @return true if any piece of the given team attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byTeam) {
+        int offset = byTeam.ordinal() * 6;
+        long queens = pieceBitboards[offset + QUEEN];
+        return (Attacks.pawn(ChessGame.opponent(byTeam), square) & pieceBitboards[offset + PAWN]) != 0
+            || (Attacks.knight(square) & pieceBitboards[offset + KNIGHT]) != 0
+            || (Attacks.king(square) & pieceBitboards[offset + KING]) != 0
+            || (Attacks.bishop(square, occupied) & (pieceBitboards[offset + BISHOP] | queens)) != 0
+            || (Attacks.rook(square, occupied) & (pieceBitboards[offset + ROOK] | queens)) != 0;
+    }
+
+    /**
+     * Works out what the piece on {@code from} wins or loses by moving to
+     * {@code to}, if both sides then keep capturing on that square with their
+     * least valuable piece for as long as it pays. Pieces behind others on the
+     * same line join in as the ones in front are traded off. Pins, checks and
+     * promotions are not considered.
+     *
+     * @return the material gained in centipawns, from the point of view of the
+     * moving piece's team; 0 if {@code from} is empty
+     */
+    public int staticExchange(int from, int to) {
+        int pieceIndex = mailbox[from];
+        if (pieceIndex == ChessPiece.NO_PIECE) {
+            return 0;
+        }
+        int[] gains = exchangeGains;
+        int target = mailbox[to];
+        gains[0] = target == ChessPiece.NO_PIECE ? 0 : EXCHANGE_VALUES[target % 6];
+        long occupied = this.occupied;
+        long attackerBit = Bitboards.bit(from);
+        int attacker = pieceIndex;
+        int side = pieceIndex / 6;
+        int depth = 0;
+        while (attackerBit != 0) {
+            depth++;
+            // What this capture nets if the opponent then takes the capturing piece
+            gains[depth] = EXCHANGE_VALUES[attacker % 6] - gains[depth - 1];
+            if (Math.max(-gains[depth - 1], gains[depth]) < 0 || depth == MAX_EXCHANGE - 1) {
+                break;
+            }
+            occupied ^= attackerBit;
+            side ^= 1;
+            long attackers = getAttackers(to, occupied) & occupied & colorBitboards[side];
+            attackerBit = 0;
+            for (int type : EXCHANGE_ORDER) {
+                long pieces = attackers & pieceBitboards[side * 6 + type];
+                if (pieces != 0) {
+                    attackerBit = pieces & -pieces;
+                    attacker = side * 6 + type;
+                    break;
+                }
+            }
+        }
+        // Either side may stop capturing whenever going on would lose more
+        while (--depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+        }
+        return gains[0];
+    }
+
+    /**
+     * @return the squares of the team's pieces that an enemy piece can capture
+     * at a profit, see {@link #staticExchange(int, int)}
+     */
+    public long getHangingPieces(ChessGame.TeamColor teamColor) {
+        long enemies = getTeamBitboard(ChessGame.opponent(teamColor));
+        long hanging = Bitboards.EMPTY;
+        int square;
+        for (long pieces = getTeamBitboard(teamColor); pieces != 0; pieces = Bitboards.popFirst(pieces)) {
+            square = Bitboards.first(pieces);
+            long attackers = getAttackers(square, occupied) & enemies;
+            if (attackers != 0 && staticExchange(leastValuable(attackers), square) > 0) {
+                hanging |= Bitboards.bit(square);
+            }
+        }
+        return hanging;
+    }
+
+    /**
+     * Checks the material on the board for a dead position, one where no
+     * sequence of moves can mate: bare kings, a single minor piece, or only
+     * bishops that all stand on squares of one color. This looks at the
+     * bitboards alone, so it is O(1).
+     */
+    public boolean hasInsufficientMaterial() {
+        if ((pieceBitboards[QUEEN] | pieceBitboards[ROOK] | pieceBitboards[PAWN]
+            | pieceBitboards[6 + QUEEN] | pieceBitboards[6 + ROOK] | pieceBitboards[6 + PAWN]) != 0) {
+            return false;
+        }
+        long knights = pieceBitboards[KNIGHT] | pieceBitboards[6 + KNIGHT];
+        long bishops = pieceBitboards[BISHOP] | pieceBitboards[6 + BISHOP];
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0
+            && ((bishops & Bitboards.LIGHT_SQUARES) == 0 || (bishops & ~Bitboards.LIGHT_SQUARES) == 0);
+    }
+
+    private int leastValuable(long pieces) {
+        int offset = (mailbox[Bitboards.first(pieces)] / 6) * 6;
+        for (int type : EXCHANGE_ORDER) {
+            long ofType = pieces & pieceBitboards[offset + type];
+            if (ofType != 0) {
+                return Bitboards.first(ofType);
+            }
+        }
+        return Bitboards.first(pieces);
+    }
+
+    /**
+     * @return every square attacked by the given team's pieces
+     */
+    public long getAttackedSquares(ChessGame.TeamColor teamColor) {
+        long attacked = Bitboards.EMPTY;
+        int square;
+        for (long pieces = getTeamBitboard(teamColor); pieces != 0; pieces = Bitboards.popFirst(pieces)) {
+            square = Bitboards.first(pieces);
+            attacked |= Attacks.of(ChessPiece.of(mailbox[square]), square, occupied);
+        }
+        return attacked;
+    }
+
+    /**
+     * Places a piece on an empty square, keeping the mailbox and bitboards in sync
+     */
+    void putPiece(int square, int pieceIndex) {
+        long bit = Bitboards.bit(square);
+        mailbox[square] = (byte) pieceIndex;
+        pieceBitboards[pieceIndex] |= bit;
+        colorBitboards[pieceIndex / 6] |= bit;
+        occupied |= bit;
+        positionKey ^= Zobrist.piece(pieceIndex, square);
+        version++;
+        if (pieceIndex % 6 == KING) {
+            kingSquares[pieceIndex / 6] = square;
+        }
+        for (PieceListener listener : listeners) {
+            listener.pieceAdded(square, pieceIndex);
+        }
+    }
+
+    /**
+     * Clears a square, keeping the mailbox and bitboards in sync
+     *
+     * @return the index of the piece that was on the square, or
+     * {@link ChessPiece#NO_PIECE} if it was empty
+     */
+    int removePiece(int square) {
+        int pieceIndex = mailbox[square];
+        if (pieceIndex == ChessPiece.NO_PIECE) {
+            return ChessPiece.NO_PIECE;
+        }
+        long bit = Bitboards.bit(square);
+        mailbox[square] = (byte) ChessPiece.NO_PIECE;
+        pieceBitboards[pieceIndex] &= ~bit;
+        colorBitboards[pieceIndex / 6] &= ~bit;
+        occupied &= ~bit;
+        positionKey ^= Zobrist.piece(pieceIndex, square);
+        version++;
+        if (pieceIndex % 6 == KING) {
+            long kings = pieceBitboards[pieceIndex];
+            kingSquares[pieceIndex / 6] = kings == 0 ? Bitboards.NO_SQUARE : Bitboards.first(kings);
+        }
+        for (PieceListener listener : listeners) {
+            listener.pieceRemoved(square, pieceIndex);
+        }
+        return pieceIndex;
+    }
+
+    /**
+     * Starts telling a listener about piece changes. The listener first hears
+     * about every piece already on the board, as if it had just been added.
+     */
+    public void addPieceListener(PieceListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        for (int square = 0; square < mailbox.length; square++) {
+            if (mailbox[square] != ChessPiece.NO_PIECE) {
+                listener.pieceAdded(square, mailbox[square]);
+            }
+        }
+    }
+
+    public void removePieceListener(PieceListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                PieceListener[] remaining = new PieceListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining;
+                return;
+            }
+        }
     }
 
     /**
@@ -58,7 +404,7 @@ public class ChessBoard {
 
     private void fillPieces(ChessGame.TeamColor teamColor, Integer row, ChessPiece.PieceType... pieces) {
         for (int i = 1; i <= pieces.length; i++) {
-            addPiece(new ChessPosition(row, i), new ChessPiece(teamColor, pieces[i-1]));
+            addPiece(ChessPosition.of(row, i), ChessPiece.of(teamColor, pieces[i-1]));
         }
     }
 
@@ -75,7 +421,7 @@ public class ChessBoard {
 
     private void putPawns(ChessGame.TeamColor teamColor, Integer row) {
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(row, col), new ChessPiece(teamColor, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(row, col), ChessPiece.of(teamColor, ChessPiece.PieceType.PAWN));
         }
     }
 
@@ -88,12 +434,11 @@ public class ChessBoard {
 
     private class ChessBoardIterator implements Iterator<ChessPiece> {
 
-        private Integer colIndex = 0;
-        private Integer rowIndex = 0;
+        private int square = 0;
 
         @Override
         public boolean hasNext() {
-            return rowIndex < BOARD_SIZE;
+            return square < mailbox.length;
         }
 
         @Override
@@ -101,13 +446,7 @@ public class ChessBoard {
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            ChessPiece chessPiece = board[rowIndex][colIndex];
-            colIndex++;
-            if (colIndex == 8) {
-                colIndex = 0;
-                rowIndex++;
-            }
-            return chessPiece;
+            return getPiece(square++);
         }
     }
 
@@ -120,12 +459,12 @@ public class ChessBoard {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that = (ChessBoard) o;
-        return Arrays.deepEquals(board, that.board);
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return (int) (positionKey ^ (positionKey >>> 32));
     }
 
     @Override
@@ -136,7 +475,7 @@ public class ChessBoard {
         String pieceStr;
         for (int row = 8; row >= 1; row--) {
             for (int col = 1; col <= 8; col ++) {
-                chessPiece = getPiece(new ChessPosition(row, col));
+                chessPiece = getPiece(Bitboards.square(row, col));
                 stringBuilder.append(' ');
                 if (chessPiece == null) {
                     stringBuilder.append("  ");
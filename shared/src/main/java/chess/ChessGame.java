@@ -1,5 +1,8 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 
@@ -9,17 +12,106 @@ import java.util.HashSet;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(LegacyGameAdapterFactory.class)
 public class ChessGame {
 
+    /**
+     * Castling rights bits, see {@link #getCastlingRights()}
+     */
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    /**
+     * Castling rights that survive a move touching each square; moving from or
+     * capturing on a king or rook home square clears the matching rights
+     */
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING);
+        CASTLING_MASKS[Bitboards.square(1, 1)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[Bitboards.square(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(1, 8)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[Bitboards.square(8, 1)] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASKS[Bitboards.square(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(8, 8)] &= ~BLACK_KINGSIDE;
+    }
+
+    /**
+     * Plies without a capture or pawn move after which the game is drawn
+     */
+    public static final int FIFTY_MOVE_PLIES = 100;
+
+    // Repetitions are only looked for since the last capture or pawn move, and
+    // the fifty-move rule ends the game before that reaches this many plies
+    private static final int HISTORY_SIZE = 128;
+    private static final int HISTORY_MASK = HISTORY_SIZE - 1;
+
     private TeamColor teamTurn;
     private ChessBoard board;
     private boolean isGameOver;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+
+    // Ring of the keys of the positions reached, indexed by ply. Built on first
+    // use, from recentPositions when there are some, so a loaded game gets its
+    // history back.
+    private transient long[] positionHistory;
+    // The keys since the last capture or pawn move, oldest first, as of the last
+    // makeMove; this is all of the history that is serialized
+    private long[] recentPositions;
+
+    // Undo stack for doMove/undoMove. Each entry packs the move squares, the
+    // pieces involved and the state the move overwrote into one long.
+    private transient long[] undoStates;
+    private transient int undoCount;
+
+    // Scratch buffers for move generation, reused across calls
+    private transient MoveList pieceMoves;
+    private transient MoveList validMoves;
+
+    // Status of the current position, valid while the board and its version match
+    private transient GameStatus status;
+    private transient ChessBoard statusBoard;
+    private transient int statusVersion;
 
     public ChessGame() {
         teamTurn = TeamColor.WHITE;
         board = new ChessBoard();
         board.resetBoard();
         isGameOver = false;
+        castlingRights = ALL_CASTLING;
+        enPassantSquare = Bitboards.NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoStates = new long[64];
+        undoCount = 0;
+        pieceMoves = new MoveList();
+        validMoves = new MoveList();
+    }
+
+    /**
+     * Sets up a game in a snapshot's position, see {@link Position#toGame()}
+     */
+    ChessGame(Position position) {
+        teamTurn = position.getTeamTurn();
+        board = position.copyBoard();
+        isGameOver = false;
+        castlingRights = position.getCastlingRights();
+        enPassantSquare = position.getEnPassantSquare();
+        halfmoveClock = position.getHalfmoveClock();
+        fullmoveNumber = position.getFullmoveNumber();
+        positionHistory = position.copyHistory();
+        undoStates = new long[64];
+        undoCount = 0;
+        pieceMoves = new MoveList();
+        validMoves = new MoveList();
+        recentPositions = recentPositions();
     }
 
     /**
@@ -36,6 +128,8 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         teamTurn = team;
+        resetHistory();
+        status = null;
     }
 
     /**
@@ -54,30 +148,31 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        ChessPiece pieceAtStartPosition = board.getPiece(startPosition);
-        if (pieceAtStartPosition == null) {
+        int square = Bitboards.square(startPosition);
+        int pieceIndex = board.getPieceIndex(square);
+        if (pieceIndex == ChessPiece.NO_PIECE) {
             return new HashSet<>();
         }
 
-        Collection<ChessMove> pieceMoves = pieceAtStartPosition.pieceMoves(board, startPosition);
-        Collection<ChessMove> validMoves = new HashSet<>();
-        ChessPiece pieceAtEndPosition;
-        for (ChessMove pieceMove : pieceMoves) {
-            // Do the move
-            pieceAtEndPosition = board.getPiece(pieceMove.getEndPosition());
-            board.addPiece(pieceMove.getEndPosition(), pieceAtStartPosition);
-            board.addPiece(pieceMove.getStartPosition(), null);
+        validMoves.clear();
+        MoveGenerator.generateLegalPieceMoves(board, square, castlingRights, enPassantSquare, validMoves);
+        return validMoves.toChessMoves();
+    }
 
-            // Validate if check
-            if (!isInCheck(pieceAtStartPosition.getTeamColor())) {
-                validMoves.add(pieceMove);
-            }
+    /**
+     * Appends every valid move of a team to a list. This is the allocation-free
+     * counterpart of {@link #validMoves(ChessPosition)}.
+     */
+    public void generateValidMoves(TeamColor teamColor, MoveList moves) {
+        MoveGenerator.generateLegalMoves(board, teamColor, castlingRights, enPassantSquare, moves);
+    }
 
-            // Undo the move
-            board.addPiece(pieceMove.getEndPosition(), pieceAtEndPosition);
-            board.addPiece(pieceMove.getStartPosition(), pieceAtStartPosition);
-        }
-        return validMoves;
+    /**
+     * Appends the valid moves of a team that capture an enemy piece, en passant
+     * included
+     */
+    public void generateValidCaptures(TeamColor teamColor, MoveList moves) {
+        MoveGenerator.generateLegalCaptures(board, teamColor, enPassantSquare, moves);
     }
 
     /**
@@ -91,19 +186,283 @@ public class ChessGame {
         if (pieceAtStartPosition != null && pieceAtStartPosition.getTeamColor() != teamTurn) {
             throw new InvalidMoveException("Not Your Turn. Curr Turn: " + teamTurn);
         }
+        if (move.getPromotionPiece() != null && !isPromotion(pieceAtStartPosition, move)) {
+            throw new InvalidMoveException("Invalid Move: " + move);
+        }
 
-        Collection<ChessMove> validMoves = validMoves(move.getStartPosition());
-        if (!validMoves.contains(move)) {
+        int encodedMove = Move.of(move);
+        pieceMoves.clear();
+        MoveGenerator.generatePieceMoves(board, Move.from(encodedMove), castlingRights, enPassantSquare, pieceMoves);
+        if (!pieceMoves.contains(encodedMove)) {
             throw new InvalidMoveException("Invalid Move: " + move);
         }
 
-        if (move.getPromotionPiece() != null) {
-            pieceAtStartPosition = new ChessPiece(teamTurn, move.getPromotionPiece());
+        doMove(encodedMove);
+        if (isInCheck(opponent(teamTurn))) {
+            undoMove();
+            throw new InvalidMoveException("Invalid Move: " + move);
         }
-        board.addPiece(move.getEndPosition(), pieceAtStartPosition);
-        board.addPiece(move.getStartPosition(), null);
+        recentPositions = recentPositions();
+        status = null;
+    }
 
-        teamTurn = teamTurn == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    /**
+     * @return whether the move is a pawn reaching the last rank and becoming a
+     * piece it may promote to
+     */
+    private static boolean isPromotion(ChessPiece piece, ChessMove move) {
+        int lastRow = piece != null && piece.getTeamColor() == TeamColor.WHITE ? 8 : 1;
+        return piece != null && piece.getPieceType() == ChessPiece.PieceType.PAWN
+            && move.getEndPosition().getRow() == lastRow
+            && move.getPromotionPiece() != ChessPiece.PieceType.KING
+            && move.getPromotionPiece() != ChessPiece.PieceType.PAWN;
+    }
+
+    /**
+     * Gets whether the team whose turn it is is in check, checkmate or stalemate,
+     * or whether the game is drawn by threefold repetition, the fifty-move rule
+     * or insufficient material. Checkmate and stalemate take precedence over
+     * the draws. The result is computed once per position and shared by later
+     * calls until a move is made or the board changes.
+     *
+     * @return the status of the current position
+     */
+    public GameStatus getGameStatus() {
+        if (status == null || statusBoard != board || statusVersion != board.getVersion()
+            || status.teamTurn() != teamTurn) {
+            boolean inCheck = isInCheck(teamTurn);
+            GameStatus.State state;
+            if (teamHasNoValidMoves(teamTurn)) {
+                state = inCheck ? GameStatus.State.CHECKMATE : GameStatus.State.STALEMATE;
+            } else if (board.hasInsufficientMaterial()) {
+                state = GameStatus.State.INSUFFICIENT_MATERIAL;
+            } else if (isFiftyMoveDraw()) {
+                state = GameStatus.State.FIFTY_MOVE_RULE;
+            } else if (isThreefoldRepetition()) {
+                state = GameStatus.State.THREEFOLD_REPETITION;
+            } else {
+                state = inCheck ? GameStatus.State.CHECK : GameStatus.State.NORMAL;
+            }
+            status = new GameStatus(state, teamTurn);
+            statusBoard = board;
+            statusVersion = board.getVersion();
+        }
+        return status;
+    }
+
+    /**
+     * Applies a move without checking that it is valid, and hands the turn to the
+     * other team. The move can be taken back with {@link #undoMove()}.
+     * <p>
+     * Applying and reverting a move only touches the squares involved and a
+     * preallocated stack, so it is cheap enough to use for trying moves out.
+     *
+     * @param move a move whose start position holds a piece
+     */
+    public void doMove(ChessMove move) {
+        doMove(Move.of(move));
+    }
+
+    /**
+     * Applies an int-encoded move, see {@link #doMove(ChessMove)}. Castling is
+     * given as the king moving two squares and also moves the rook; en passant
+     * is given as the pawn moving to the en-passant square and also removes
+     * the pawn it passes.
+     */
+    public void doMove(int move) {
+        // Built before the move, so a ring made on first use holds the position left behind
+        long[] history = history();
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        boolean enPassant = isEnPassant(move);
+        int moved = board.removePiece(from);
+        int captured = board.removePiece(enPassant ? MoveGenerator.enPassantCapture(teamTurn, to) : to);
+        if (isCastling(moved, from, to)) {
+            board.putPiece(castlingRookTarget(from, to), board.removePiece(castlingRookHome(from, to)));
+        }
+        if (undoCount == undoStates.length) {
+            undoStates = Arrays.copyOf(undoStates, undoCount * 2);
+        }
+        undoStates[undoCount++] = from
+            | (long) to << 6
+            | (long) castlingRights << 12
+            | (long) (enPassantSquare + 1) << 16
+            | (long) moved << 23
+            | (long) (captured + 1) << 27
+            | (long) halfmoveClock << 32;
+
+        if (Move.isPromotion(move)) {
+            board.putPiece(to, ChessPiece.index(teamOf(moved), Move.promotion(move)));
+        } else {
+            board.putPiece(to, moved);
+        }
+
+        castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        enPassantSquare = moved % 6 == ChessPiece.PieceType.PAWN.ordinal() && Math.abs(to - from) == 16
+            ? (from + to) / 2
+            : Bitboards.NO_SQUARE;
+        halfmoveClock = captured != ChessPiece.NO_PIECE || moved % 6 == ChessPiece.PieceType.PAWN.ordinal()
+            ? 0
+            : halfmoveClock + 1;
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        teamTurn = opponent(teamTurn);
+        history[ply() & HISTORY_MASK] = positionKey();
+    }
+
+    /**
+     * Reverts the last move applied with {@link #doMove(ChessMove)} or
+     * {@link #makeMove(ChessMove)}
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void undoMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        undoCount--;
+        long state = undoStates[undoCount];
+        int from = (int) (state & 0x3F);
+        int to = (int) (state >>> 6 & 0x3F);
+
+        int captured = (int) (state >>> 27 & 0x1F) - 1;
+
+        int moved = (int) (state >>> 23 & 0xF);
+
+        castlingRights = (int) (state >>> 12 & 0xF);
+        enPassantSquare = (int) (state >>> 16 & 0x7F) - 1;
+        halfmoveClock = (int) (state >>> 32);
+        teamTurn = opponent(teamTurn);
+
+        board.removePiece(to);
+        board.putPiece(from, moved);
+        if (isCastling(moved, from, to)) {
+            board.putPiece(castlingRookHome(from, to), board.removePiece(castlingRookTarget(from, to)));
+        }
+        if (captured != ChessPiece.NO_PIECE) {
+            // Only a pawn can move to the en-passant square, and only by capturing
+            boolean enPassant = to == enPassantSquare && moved % 6 == ChessPiece.PieceType.PAWN.ordinal();
+            board.putPiece(enPassant ? MoveGenerator.enPassantCapture(teamTurn, to) : to, captured);
+        }
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
+    }
+
+    /**
+     * @return an immutable snapshot of the current position, including the
+     * history the repetition rule needs, made with a few flat array copies
+     */
+    public Position snapshot() {
+        return new Position(new ChessBoard(board), teamTurn, castlingRights, enPassantSquare, halfmoveClock,
+            fullmoveNumber, positionKey(), history().clone());
+    }
+
+    /**
+     * @return an independent game in the same position and with the same
+     * repetition history, without moves to undo
+     */
+    public ChessGame copy() {
+        ChessGame copy = new ChessGame(snapshot());
+        copy.isGameOver = isGameOver;
+        return copy;
+    }
+
+    /**
+     * Gets a 64-bit Zobrist key identifying the position: the pieces on the board,
+     * the team to move, the castling rights, and the en-passant file when the
+     * team to move has a pawn that could capture en passant. Equal positions
+     * always have equal keys; different positions collide with negligible
+     * probability.
+     * <p>
+     * The piece part is kept up to date by the board as pieces are added and
+     * removed, so this is O(1).
+     */
+    public long positionKey() {
+        long key = board.positionKey() ^ Zobrist.castling(castlingRights);
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        if (enPassantSquare != Bitboards.NO_SQUARE
+            && (Attacks.pawn(opponent(teamTurn), enPassantSquare) & board.getBitboard(teamTurn, ChessPiece.PieceType.PAWN)) != 0) {
+            key ^= Zobrist.enPassant(enPassantSquare & 7);
+        }
+        return key;
+    }
+
+    /**
+     * @return the castling rights still available, as a combination of the
+     * WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE and BLACK_QUEENSIDE bits
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the square a pawn skipped over with a double step on the last move,
+     * or {@link Bitboards#NO_SQUARE}
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * @return whether an int-encoded move of the team to move captures en passant
+     */
+    public boolean isEnPassant(int move) {
+        return Move.to(move) == enPassantSquare
+            && board.getPieceIndex(Move.from(move)) == ChessPiece.index(teamTurn, ChessPiece.PieceType.PAWN);
+    }
+
+    /**
+     * @return the index of the piece an int-encoded move of the team to move
+     * captures, or {@link ChessPiece#NO_PIECE}
+     */
+    public int capturedPiece(int move) {
+        return isEnPassant(move)
+            ? board.getPieceIndex(MoveGenerator.enPassantCapture(teamTurn, Move.to(move)))
+            : board.getPieceIndex(Move.to(move));
+    }
+
+    /**
+     * @return the number of plies since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and going up
+     * after each of Black's moves
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return whether the current position occurred before, with the same team
+     * to move, since the last capture or pawn move. The search scores such a
+     * position as a draw, since either side could repeat it again.
+     */
+    public boolean isRepetition() {
+        return repetitions(1) > 0;
+    }
+
+    /**
+     * @return whether the current position is occurring for the third time
+     * since the last capture or pawn move
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitions(2) == 2;
+    }
+
+    /**
+     * @return whether a hundred plies were played without a capture or pawn move
+     */
+    public boolean isFiftyMoveDraw() {
+        return halfmoveClock >= FIFTY_MOVE_PLIES;
     }
 
     /**
@@ -113,22 +472,8 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPiece chessPiece;
-        ChessPosition chessPosition;
-        ChessPosition kingPosition = getKingPosition(teamColor);
-        for (int row = 1; row <= board.BOARD_SIZE; row++) {
-            for (int col = 1; col <= board.BOARD_SIZE; col++) {
-                chessPosition = new ChessPosition(row, col);
-                chessPiece = board.getPiece(chessPosition);
-                if (chessPiece == null || chessPiece.getTeamColor() == teamColor) continue;
-                for (ChessMove chessMove : chessPiece.pieceMoves(board, chessPosition)) {
-                    if (chessMove.getEndPosition().equals(kingPosition)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        int kingSquare = board.getKingSquare(teamColor);
+        return kingSquare != Bitboards.NO_SQUARE && board.isSquareAttacked(kingSquare, opponent(teamColor));
     }
 
     /**
@@ -138,6 +483,9 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
+        if (teamColor == teamTurn) {
+            return getGameStatus().state() == GameStatus.State.CHECKMATE;
+        }
         return isInCheck(teamColor) && teamHasNoValidMoves(teamColor);
     }
 
@@ -149,6 +497,9 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
+        if (teamColor == teamTurn) {
+            return getGameStatus().state() == GameStatus.State.STALEMATE;
+        }
         return !isInCheck(teamColor) && teamHasNoValidMoves(teamColor);
 
     }
@@ -158,7 +509,16 @@ public class ChessGame {
      *
      * @param board the new board to use
      */
-    public void setBoard(ChessBoard board) { this.board = board; }
+    public void setBoard(ChessBoard board) {
+        this.board = board;
+        castlingRights = inferCastlingRights(board);
+        enPassantSquare = Bitboards.NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoCount = 0;
+        resetHistory();
+        status = null;
+    }
 
     /**
      * Gets the current chessboard
@@ -177,34 +537,139 @@ public class ChessGame {
         this.isGameOver = isGameOver;
     }
 
-    private ChessPosition getKingPosition(TeamColor teamColor) {
-        ChessPosition position;
-        ChessPiece piece;
-        for (int row = 1; row <= board.BOARD_SIZE; row++) {
-            for (int col = 1; col <= board.BOARD_SIZE; col++) {
-                position = new ChessPosition(row, col);
-                piece = board.getPiece(position);
-                if (piece != null
-                    && piece.getTeamColor() == teamColor
-                    && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    return position;
-                }
+    private boolean teamHasNoValidMoves(TeamColor teamColor) {
+        validMoves.clear();
+        generateValidMoves(teamColor, validMoves);
+        return validMoves.isEmpty();
+    }
+
+    /**
+     * Overrides the castling rights, en-passant square and move counters set by
+     * setBoard, for callers that know the position's history
+     */
+    void setPositionState(int castlingRights, int enPassantSquare, int halfmoveClock, int fullmoveNumber) {
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        resetHistory();
+        status = null;
+    }
+
+    /**
+     * Counts the earlier occurrences of the current position, stepping back two
+     * plies at a time through the positions since the last capture or pawn
+     * move. Positions from before the history was reset are zero and never
+     * match.
+     *
+     * @param limit the count at which to stop looking
+     */
+    private int repetitions(int limit) {
+        long[] history = history();
+        int ply = ply();
+        long key = history[ply & HISTORY_MASK];
+        int window = Math.min(halfmoveClock, HISTORY_SIZE - 1);
+        int count = 0;
+        for (int back = 4; back <= window && count < limit; back += 2) {
+            if (history[(ply - back) & HISTORY_MASK] == key) {
+                count++;
             }
         }
-        return null;
+        return count;
     }
 
-    private boolean teamHasNoValidMoves(TeamColor teamColor) {
-        ChessPosition chessPosition;
-        ChessPiece chessPiece;
-        for (int row = 1; row <= board.BOARD_SIZE; row++) {
-            for (int col = 1; col <= board.BOARD_SIZE; col++) {
-                chessPosition = new ChessPosition(row, col);
-                chessPiece = board.getPiece(chessPosition);
-                if (chessPiece == null || chessPiece.getTeamColor() != teamColor) continue;
-                if (!validMoves(chessPosition).isEmpty()) return false;
+    /**
+     * Forgets the positions reached so far, keeping only the current one
+     */
+    private void resetHistory() {
+        positionHistory = null;
+        recentPositions = null;
+    }
+
+    /**
+     * @return the ring of position keys, built from the saved recent positions
+     * if they end in the current position, or holding only the current position
+     */
+    private long[] history() {
+        if (positionHistory == null) {
+            positionHistory = new long[HISTORY_SIZE];
+            int ply = ply();
+            long key = positionKey();
+            long[] recent = recentPositions;
+            if (recent != null && recent.length > 0 && recent.length <= HISTORY_SIZE
+                && recent[recent.length - 1] == key) {
+                for (int i = 0; i < recent.length; i++) {
+                    positionHistory[(ply - recent.length + 1 + i) & HISTORY_MASK] = recent[i];
+                }
+            } else {
+                positionHistory[ply & HISTORY_MASK] = key;
             }
         }
-        return true;
+        return positionHistory;
+    }
+
+    /**
+     * @return the keys of the positions since the last capture or pawn move,
+     * oldest first, leaving out those from before the history was reset
+     */
+    private long[] recentPositions() {
+        long[] history = history();
+        int ply = ply();
+        int count = Math.min(halfmoveClock, HISTORY_SIZE - 1) + 1;
+        while (count > 1 && history[(ply - count + 1) & HISTORY_MASK] == 0) {
+            count--;
+        }
+        long[] recent = new long[count];
+        for (int i = 0; i < count; i++) {
+            recent[i] = history[(ply - count + 1 + i) & HISTORY_MASK];
+        }
+        return recent;
+    }
+
+    /**
+     * @return a number that goes up by one with every move, used to index the
+     * position history
+     */
+    private int ply() {
+        return fullmoveNumber * 2 + teamTurn.ordinal();
+    }
+
+    /**
+     * A board on its own has no history, so assume a king and rook that are on
+     * their home squares have not moved
+     */
+    private static int inferCastlingRights(ChessBoard board) {
+        int rights = 0;
+        long whiteRooks = board.getBitboard(TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        long blackRooks = board.getBitboard(TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        if (Bitboards.contains(board.getBitboard(TeamColor.WHITE, ChessPiece.PieceType.KING), Bitboards.square(1, 5))) {
+            if (Bitboards.contains(whiteRooks, Bitboards.square(1, 8))) rights |= WHITE_KINGSIDE;
+            if (Bitboards.contains(whiteRooks, Bitboards.square(1, 1))) rights |= WHITE_QUEENSIDE;
+        }
+        if (Bitboards.contains(board.getBitboard(TeamColor.BLACK, ChessPiece.PieceType.KING), Bitboards.square(8, 5))) {
+            if (Bitboards.contains(blackRooks, Bitboards.square(8, 8))) rights |= BLACK_KINGSIDE;
+            if (Bitboards.contains(blackRooks, Bitboards.square(8, 1))) rights |= BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private static boolean isCastling(int moved, int from, int to) {
+        return moved % 6 == ChessPiece.PieceType.KING.ordinal() && Math.abs(to - from) == 2;
+    }
+
+    private static int castlingRookHome(int from, int to) {
+        return to > from ? from + 3 : from - 4;
+    }
+
+    private static int castlingRookTarget(int from, int to) {
+        return (from + to) / 2;
+    }
+
+    private static TeamColor teamOf(int pieceIndex) {
+        return pieceIndex < 6 ? TeamColor.WHITE : TeamColor.BLACK;
+    }
+
+    static TeamColor opponent(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
     }
 }
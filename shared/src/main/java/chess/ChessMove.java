@@ -55,7 +55,8 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        return 31 * (31 * Objects.hashCode(startPosition) + Objects.hashCode(endPosition))
+            + Objects.hashCode(promotionPiece);
     }
 
     @Override
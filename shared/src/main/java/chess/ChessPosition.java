@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -10,8 +8,16 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
-    private final Integer row;
-    private final Integer col;
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new ChessPosition(Bitboards.row(square), Bitboards.column(square));
+        }
+    }
+
+    private final int row;
+    private final int col;
 
     public ChessPosition(int row, int col) {
         this.row = row;
@@ -23,6 +29,25 @@ public class ChessPosition {
         this.col = Character.toLowerCase(col) - 'a' + 1;
     }
 
+    /**
+     * Gets the shared instance for a position, so that positions on the board are
+     * never allocated more than once. Positions off the board are not cached.
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[Bitboards.square(row, col)];
+    }
+
+    /**
+     * @param square square index, see {@link Bitboards}
+     * @return the shared instance for the square
+     */
+    public static ChessPosition of(int square) {
+        return POSITIONS[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -44,12 +69,12 @@ public class ChessPosition {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessPosition that = (ChessPosition) o;
-        return Objects.equals(row, that.row) && Objects.equals(col, that.col);
+        return row == that.row && col == that.col;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
     }
 
     @Override
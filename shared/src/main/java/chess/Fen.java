@@ -0,0 +1,147 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, for example the
+ * starting position:
+ * <pre>rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1</pre>
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_CHARS = "KQBNRPkqbnrp";
+
+    private Fen() {}
+
+    /**
+     * @return a game set up in the given position
+     * @throws IllegalArgumentException if the text is not a valid FEN
+     */
+    public static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("FEN needs at least a board and a side to move: " + fen);
+        }
+
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int column = 1;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                row--;
+                column = 1;
+            } else if (c >= '1' && c <= '8') {
+                column += c - '0';
+            } else {
+                int pieceIndex = PIECE_CHARS.indexOf(c);
+                if (pieceIndex < 0 || row < 1 || column > 8) {
+                    throw new IllegalArgumentException("Bad FEN board: " + fields[0]);
+                }
+                board.putPiece(Bitboards.square(row, column), pieceIndex);
+                column++;
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(switch (fields[1]) {
+            case "w" -> ChessGame.TeamColor.WHITE;
+            case "b" -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Bad FEN side to move: " + fields[1]);
+        });
+
+        int castlingRights = 0;
+        if (fields.length > 2) {
+            for (char c : fields[2].toCharArray()) {
+                castlingRights |= switch (c) {
+                    case 'K' -> ChessGame.WHITE_KINGSIDE;
+                    case 'Q' -> ChessGame.WHITE_QUEENSIDE;
+                    case 'k' -> ChessGame.BLACK_KINGSIDE;
+                    case 'q' -> ChessGame.BLACK_QUEENSIDE;
+                    case '-' -> 0;
+                    default -> throw new IllegalArgumentException("Bad FEN castling rights: " + fields[2]);
+                };
+            }
+        }
+        int enPassantSquare = Bitboards.NO_SQUARE;
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            enPassantSquare = parseSquare(fields[3]);
+        }
+        int halfmoveClock = fields.length > 4 ? parseCounter(fields[4], 0) : 0;
+        int fullmoveNumber = fields.length > 5 ? parseCounter(fields[5], 1) : 1;
+        game.setPositionState(castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber);
+        return game;
+    }
+
+    public static String format(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        StringBuilder fen = new StringBuilder();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int column = 1; column <= 8; column++) {
+                int pieceIndex = board.getPieceIndex(Bitboards.square(row, column));
+                if (pieceIndex == ChessPiece.NO_PIECE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(PIECE_CHARS.charAt(pieceIndex));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        int castlingRights = game.getCastlingRights();
+        if (castlingRights == 0) {
+            fen.append('-');
+        }
+        if ((castlingRights & ChessGame.WHITE_KINGSIDE) != 0) fen.append('K');
+        if ((castlingRights & ChessGame.WHITE_QUEENSIDE) != 0) fen.append('Q');
+        if ((castlingRights & ChessGame.BLACK_KINGSIDE) != 0) fen.append('k');
+        if ((castlingRights & ChessGame.BLACK_QUEENSIDE) != 0) fen.append('q');
+
+        fen.append(' ');
+        if (game.getEnPassantSquare() == Bitboards.NO_SQUARE) {
+            fen.append('-');
+        } else {
+            appendSquare(fen, game.getEnPassantSquare());
+        }
+        return fen.append(' ').append(game.getHalfmoveClock())
+            .append(' ').append(game.getFullmoveNumber()).toString();
+    }
+
+    private static int parseCounter(String text, int min) {
+        try {
+            int counter = Integer.parseInt(text);
+            if (counter >= min) {
+                return counter;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Bad FEN move counter: " + text);
+    }
+
+    /**
+     * @param text a square in algebraic form, such as "e4"
+     * @return the square index
+     */
+    public static int parseSquare(String text) {
+        if (text.length() != 2 || text.charAt(0) < 'a' || text.charAt(0) > 'h'
+            || text.charAt(1) < '1' || text.charAt(1) > '8') {
+            throw new IllegalArgumentException("Bad square: " + text);
+        }
+        return Bitboards.square(text.charAt(1) - '0', text.charAt(0) - 'a' + 1);
+    }
+
+    public static void appendSquare(StringBuilder builder, int square) {
+        builder.append((char) ('a' + Bitboards.column(square) - 1)).append((char) ('0' + Bitboards.row(square)));
+    }
+}
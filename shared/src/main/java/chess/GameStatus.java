@@ -0,0 +1,35 @@
+package chess;
+
+/**
+ * The outcome of the current position for the team whose turn it is
+ *
+ * @param state    whether that team is in check, checkmate or stalemate, or
+ *                 the game is drawn by rule
+ * @param teamTurn the team whose turn it is
+ */
+public record GameStatus(
+    State state,
+    ChessGame.TeamColor teamTurn
+) {
+
+    public enum State {
+        NORMAL,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        THREEFOLD_REPETITION,
+        FIFTY_MOVE_RULE,
+        INSUFFICIENT_MATERIAL
+    }
+
+    public boolean isGameOver() {
+        return state != State.NORMAL && state != State.CHECK;
+    }
+
+    /**
+     * @return whether the game ended without a winner
+     */
+    public boolean isDraw() {
+        return isGameOver() && state != State.CHECKMATE;
+    }
+}
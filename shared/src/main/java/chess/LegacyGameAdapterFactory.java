@@ -0,0 +1,85 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads games saved before the board kept its pieces in a mailbox and
+ * bitboards, when its JSON was an 8 by 8 grid of pieces under "board". Such a
+ * game is rebuilt from the grid with {@link ChessGame#setBoard}, which works
+ * out the castling rights from where the kings and rooks stand. Games in the
+ * current form are read and written by Gson as usual.
+ */
+final class LegacyGameAdapterFactory implements TypeAdapterFactory {
+
+    private static final String BOARD = "board";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != ChessGame.class) {
+            return null;
+        }
+        TypeAdapter<ChessGame> delegate = gson.getDelegateAdapter(this, TypeToken.get(ChessGame.class));
+        TypeAdapter<ChessPiece> pieces = gson.getAdapter(ChessPiece.class);
+        return (TypeAdapter<T>) new TypeAdapter<ChessGame>() {
+            @Override
+            public void write(JsonWriter out, ChessGame game) throws IOException {
+                delegate.write(out, game);
+            }
+
+            @Override
+            public ChessGame read(JsonReader in) {
+                JsonElement json = JsonParser.parseReader(in);
+                JsonArray grid = legacyGrid(json);
+                if (grid == null) {
+                    return delegate.fromJsonTree(json);
+                }
+                JsonObject rest = json.getAsJsonObject().deepCopy();
+                rest.remove(BOARD);
+                ChessGame game = delegate.fromJsonTree(rest);
+                game.setBoard(readGrid(grid, pieces));
+                return game;
+            }
+        };
+    }
+
+    /**
+     * @return the rows of pieces of a game in the old form, or null for one in
+     * the current form
+     */
+    private static JsonArray legacyGrid(JsonElement json) {
+        if (!json.isJsonObject() || !(json.getAsJsonObject().get(BOARD) instanceof JsonObject board)) {
+            return null;
+        }
+        return board.get(BOARD) instanceof JsonArray grid ? grid : null;
+    }
+
+    /**
+     * @param grid rows 1 to 8 of columns 1 to 8, with null for an empty square
+     */
+    private static ChessBoard readGrid(JsonArray grid, TypeAdapter<ChessPiece> pieces) {
+        ChessBoard board = new ChessBoard();
+        for (int row = 0; row < grid.size() && row < ChessBoard.BOARD_SIZE; row++) {
+            JsonArray columns = grid.get(row).getAsJsonArray();
+            for (int column = 0; column < columns.size() && column < ChessBoard.BOARD_SIZE; column++) {
+                ChessPiece piece = pieces.fromJsonTree(columns.get(column));
+                if (piece != null) {
+                    board.addPiece(new ChessPosition(row + 1, column + 1),
+                        ChessPiece.of(piece.getTeamColor(), piece.getPieceType()));
+                }
+            }
+        }
+        return board;
+    }
+}
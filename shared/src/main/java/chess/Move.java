@@ -0,0 +1,68 @@
+package chess;
+
+/**
+ * Helpers for moves packed into an int, which is how move generation and search
+ * pass moves around without allocating.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square (see
+ * {@link Bitboards}). Bits 12-14 hold the ordinal of the promotion piece type,
+ * or 0 for no promotion; 0 is free because a pawn never promotes to a king.
+ */
+public final class Move {
+
+    /**
+     * Stand-in for "no move"; a1 to a1 is never a real move
+     */
+    public static final int NONE = 0;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {}
+
+    public static int encode(int from, int to) {
+        return from | to << 6;
+    }
+
+    /**
+     * @param promotion piece type to promote to, or null
+     */
+    public static int encode(int from, int to, ChessPiece.PieceType promotion) {
+        return promotion == null ? encode(from, to) : from | to << 6 | promotion.ordinal() << 12;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return move >>> 6 & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int ordinal = move >>> 12 & 0x7;
+        return ordinal == 0 ? null : TYPES[ordinal];
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & 0x7000) != 0;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the move promotes to a king, which
+     *                                  has no encoding
+     */
+    public static int of(ChessMove move) {
+        if (move.getPromotionPiece() == ChessPiece.PieceType.KING) {
+            throw new IllegalArgumentException("Cannot promote to a king: " + move);
+        }
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+            move.getPromotionPiece());
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+}
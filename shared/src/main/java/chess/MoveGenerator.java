@@ -0,0 +1,324 @@
+package chess;
+
+/**
+ * Generates int-encoded moves (see {@link Move}) into a {@link MoveList}.
+ * <p>
+ * There are two flavors. Pseudo-legal moves follow how each piece moves but
+ * may leave the mover's own king in check; they back
+ * {@link ChessPiece#pieceMoves(ChessBoard, ChessPosition)}. Legal moves are
+ * produced directly by working out the pieces giving check and the pieces
+ * pinned to their king once per position:
+ * <ul>
+ * <li>under double check only the king can move,</li>
+ * <li>under single check other pieces may only capture the checker or block it,</li>
+ * <li>a pinned piece may only move along the line through its king and pinner,</li>
+ * <li>the king may only step to squares the enemy does not attack once the king
+ * itself is out of the way.</li>
+ * </ul>
+ * Castling and en passant depend on the game's history rather than the board,
+ * so they are only generated when the caller passes in the castling rights
+ * and en-passant square that {@link ChessGame} keeps. An en-passant capture
+ * is checked on its own by taking both pawns off the board, since it can
+ * uncover an attack on the king along the rank they stood on.
+ * <p>
+ * Use the legal generator whenever all moves of a team or a piece are needed
+ * (valid moves, checkmate and stalemate tests, search). Trying a move with
+ * {@link ChessGame#doMove(int)} and {@link ChessGame#isInCheck} is still the
+ * cheaper way to vet a single move that arrives from outside, since it skips
+ * the pin and checker setup.
+ */
+public final class MoveGenerator {
+
+    private MoveGenerator() {}
+
+    /**
+     * Appends the pseudo-legal moves of every piece of a team
+     */
+    public static void generateMoves(ChessBoard board, ChessGame.TeamColor teamColor, MoveList moves) {
+        for (long pieces = board.getTeamBitboard(teamColor); pieces != 0; pieces = Bitboards.popFirst(pieces)) {
+            generateTargets(board, Bitboards.first(pieces), ~0L, Bitboards.NO_SQUARE, moves);
+        }
+    }
+
+    /**
+     * Appends the pseudo-legal moves of the piece on a square, if there is one,
+     * leaving out castling and en passant
+     */
+    public static void generatePieceMoves(ChessBoard board, int square, MoveList moves) {
+        generatePieceMoves(board, square, 0, Bitboards.NO_SQUARE, moves);
+    }
+
+    /**
+     * Appends the pseudo-legal moves of the piece on a square, if there is one.
+     * Castling is only added when the king is not in check and does not pass
+     * through or land on an attacked square.
+     *
+     * @param castlingRights  see {@link ChessGame#getCastlingRights()}
+     * @param enPassantSquare see {@link ChessGame#getEnPassantSquare()}
+     */
+    public static void generatePieceMoves(ChessBoard board, int square, int castlingRights, int enPassantSquare,
+                                          MoveList moves) {
+        generateTargets(board, square, ~0L, enPassantSquare, moves);
+        int pieceIndex = board.getPieceIndex(square);
+        if (pieceIndex != ChessPiece.NO_PIECE && pieceIndex % 6 == ChessPiece.PieceType.KING.ordinal()) {
+            generateCastling(board, ChessPiece.of(pieceIndex).getTeamColor(), castlingRights, moves);
+        }
+    }
+
+    /**
+     * Appends the legal moves of every piece of a team
+     */
+    public static void generateLegalMoves(ChessBoard board, ChessGame.TeamColor teamColor, int castlingRights,
+                                          int enPassantSquare, MoveList moves) {
+        generateLegalMoves(board, teamColor, board.getTeamBitboard(teamColor), ~0L, castlingRights, enPassantSquare,
+            moves);
+    }
+
+    /**
+     * Appends the legal moves of a team that capture an enemy piece, en passant
+     * included, which is what a quiescence search looks at
+     */
+    public static void generateLegalCaptures(ChessBoard board, ChessGame.TeamColor teamColor, int enPassantSquare,
+                                             MoveList moves) {
+        generateLegalMoves(board, teamColor, board.getTeamBitboard(teamColor),
+            board.getTeamBitboard(ChessGame.opponent(teamColor)), 0, enPassantSquare, moves);
+    }
+
+    /**
+     * Appends the legal moves of the piece on a square, if there is one
+     */
+    public static void generateLegalPieceMoves(ChessBoard board, int square, int castlingRights, int enPassantSquare,
+                                               MoveList moves) {
+        int pieceIndex = board.getPieceIndex(square);
+        if (pieceIndex != ChessPiece.NO_PIECE) {
+            generateLegalMoves(board, ChessPiece.of(pieceIndex).getTeamColor(), Bitboards.bit(square), ~0L,
+                castlingRights, enPassantSquare, moves);
+        }
+    }
+
+    /**
+     * @param pieces  the squares of the team's pieces to generate moves for
+     * @param targets the only end squares to generate moves to; an en-passant
+     *                capture counts as a move to the captured pawn's square
+     */
+    private static void generateLegalMoves(ChessBoard board, ChessGame.TeamColor teamColor, long pieces, long targets,
+                                           int castlingRights, int enPassantSquare, MoveList moves) {
+        int king = board.getKingSquare(teamColor);
+        if (king == Bitboards.NO_SQUARE) {
+            // Nothing can be checked or pinned without a king
+            for (; pieces != 0; pieces = Bitboards.popFirst(pieces)) {
+                generateTargets(board, Bitboards.first(pieces), targets, enPassantSquare, moves);
+            }
+            return;
+        }
+
+        ChessGame.TeamColor enemyColor = ChessGame.opponent(teamColor);
+        long own = board.getTeamBitboard(teamColor);
+        long enemies = board.getTeamBitboard(enemyColor);
+        long occupied = board.getOccupied();
+        long checkers = board.getAttackers(king, occupied) & enemies;
+
+        if (Bitboards.contains(pieces, king)) {
+            long withoutKing = occupied ^ Bitboards.bit(king);
+            int target;
+            for (long kingTargets = Attacks.king(king) & ~own & targets; kingTargets != 0;
+                 kingTargets = Bitboards.popFirst(kingTargets)) {
+                target = Bitboards.first(kingTargets);
+                if ((board.getAttackers(target, withoutKing) & enemies) == 0) {
+                    moves.add(Move.encode(king, target));
+                }
+            }
+            if (checkers == 0 && targets == ~0L) {
+                generateCastling(board, teamColor, castlingRights, moves);
+            }
+            pieces &= ~Bitboards.bit(king);
+        }
+
+        if (Bitboards.count(checkers) > 1) {
+            return;
+        }
+        long allowed = targets;
+        if (checkers != 0) {
+            allowed &= checkers | Attacks.between(king, Bitboards.first(checkers));
+        }
+
+        long pinned = pinnedPieces(board, teamColor, king);
+        long movers = pieces;
+        int square;
+        for (; pieces != 0; pieces = Bitboards.popFirst(pieces)) {
+            square = Bitboards.first(pieces);
+            if (Bitboards.contains(pinned, square)) {
+                generateTargets(board, square, allowed & Attacks.line(king, square), Bitboards.NO_SQUARE, moves);
+            } else {
+                generateTargets(board, square, allowed, Bitboards.NO_SQUARE, moves);
+            }
+        }
+
+        if (enPassantSquare != Bitboards.NO_SQUARE) {
+            generateLegalEnPassant(board, teamColor, king, movers, targets, enPassantSquare, moves);
+        }
+    }
+
+    /**
+     * Appends the en-passant captures that do not leave the king attacked,
+     * found by lifting the capturing and captured pawns off the board. This
+     * covers pins along the rank the two pawns share, which the pin mask
+     * cannot see, and captures of a pawn that gives check.
+     */
+    private static void generateLegalEnPassant(ChessBoard board, ChessGame.TeamColor teamColor, int king, long pieces,
+                                               long targets, int enPassantSquare, MoveList moves) {
+        int captured = enPassantCapture(teamColor, enPassantSquare);
+        ChessGame.TeamColor enemyColor = ChessGame.opponent(teamColor);
+        if (!Bitboards.contains(board.getBitboard(enemyColor, ChessPiece.PieceType.PAWN), captured)
+            || !Bitboards.contains(targets, captured)) {
+            return;
+        }
+        long enemies = board.getTeamBitboard(enemyColor) & ~Bitboards.bit(captured);
+        long capturers = Attacks.pawn(enemyColor, enPassantSquare)
+            & board.getBitboard(teamColor, ChessPiece.PieceType.PAWN) & pieces;
+        int from;
+        for (; capturers != 0; capturers = Bitboards.popFirst(capturers)) {
+            from = Bitboards.first(capturers);
+            long occupied = board.getOccupied() ^ Bitboards.bit(from) ^ Bitboards.bit(captured)
+                | Bitboards.bit(enPassantSquare);
+            if ((board.getAttackers(king, occupied) & enemies) == 0) {
+                moves.add(Move.encode(from, enPassantSquare));
+            }
+        }
+    }
+
+    /**
+     * Appends the castling moves of a team's king, encoded as the king moving
+     * two squares. The king and rook must be on their home squares with the
+     * matching right left, the squares between them empty, and the king must not
+     * be in check, pass through an attacked square or land on one.
+     */
+    private static void generateCastling(ChessBoard board, ChessGame.TeamColor teamColor, int castlingRights,
+                                         MoveList moves) {
+        boolean white = teamColor == ChessGame.TeamColor.WHITE;
+        int kingside = castlingRights & (white ? ChessGame.WHITE_KINGSIDE : ChessGame.BLACK_KINGSIDE);
+        int queenside = castlingRights & (white ? ChessGame.WHITE_QUEENSIDE : ChessGame.BLACK_QUEENSIDE);
+        int home = Bitboards.square(white ? 1 : 8, 5);
+        if ((kingside | queenside) == 0 || board.getKingSquare(teamColor) != home) {
+            return;
+        }
+        ChessGame.TeamColor enemyColor = ChessGame.opponent(teamColor);
+        if (board.isSquareAttacked(home, enemyColor)) {
+            return;
+        }
+        long rooks = board.getBitboard(teamColor, ChessPiece.PieceType.ROOK);
+        long occupied = board.getOccupied();
+        if (kingside != 0 && Bitboards.contains(rooks, home + 3) && (Attacks.between(home, home + 3) & occupied) == 0
+            && !board.isSquareAttacked(home + 1, enemyColor) && !board.isSquareAttacked(home + 2, enemyColor)) {
+            moves.add(Move.encode(home, home + 2));
+        }
+        if (queenside != 0 && Bitboards.contains(rooks, home - 4) && (Attacks.between(home, home - 4) & occupied) == 0
+            && !board.isSquareAttacked(home - 1, enemyColor) && !board.isSquareAttacked(home - 2, enemyColor)) {
+            moves.add(Move.encode(home, home - 2));
+        }
+    }
+
+    /**
+     * @return the square of the pawn a team captures by moving to the
+     * en-passant square, one rank behind it from the capturer's side
+     */
+    static int enPassantCapture(ChessGame.TeamColor teamColor, int enPassantSquare) {
+        return teamColor == ChessGame.TeamColor.WHITE ? enPassantSquare - 8 : enPassantSquare + 8;
+    }
+
+    /**
+     * @return the team's pieces that are the only blocker between their king and
+     * an enemy slider aimed at it
+     */
+    private static long pinnedPieces(ChessBoard board, ChessGame.TeamColor teamColor, int king) {
+        ChessGame.TeamColor enemyColor = ChessGame.opponent(teamColor);
+        long queens = board.getBitboard(enemyColor, ChessPiece.PieceType.QUEEN);
+        long snipers = (Attacks.rook(king, 0) & (board.getBitboard(enemyColor, ChessPiece.PieceType.ROOK) | queens))
+            | (Attacks.bishop(king, 0) & (board.getBitboard(enemyColor, ChessPiece.PieceType.BISHOP) | queens));
+        long occupied = board.getOccupied();
+        long pinned = 0;
+        long blockers;
+        for (; snipers != 0; snipers = Bitboards.popFirst(snipers)) {
+            blockers = Attacks.between(king, Bitboards.first(snipers)) & occupied;
+            if (blockers != 0 && Bitboards.popFirst(blockers) == 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned & board.getTeamBitboard(teamColor);
+    }
+
+    /**
+     * Appends the pseudo-legal moves of the piece on a square, if there is one,
+     * that end on an allowed square, leaving out castling
+     *
+     * @param allowed         the only end squares to generate moves to
+     * @param enPassantSquare the square a pawn may capture en passant on, or
+     *                        {@link Bitboards#NO_SQUARE}; such a capture is
+     *                        allowed when the captured pawn's square is
+     */
+    private static void generateTargets(ChessBoard board, int square, long allowed, int enPassantSquare,
+                                        MoveList moves) {
+        int pieceIndex = board.getPieceIndex(square);
+        if (pieceIndex == ChessPiece.NO_PIECE) {
+            return;
+        }
+        ChessPiece piece = ChessPiece.of(pieceIndex);
+        long targets = ~board.getTeamBitboard(piece.getTeamColor()) & allowed;
+        long occupied = board.getOccupied();
+
+        switch (piece.getPieceType()) {
+            case KING -> addMoves(square, Attacks.king(square) & targets, moves);
+            case QUEEN -> addMoves(square, Attacks.queen(square, occupied) & targets, moves);
+            case ROOK -> addMoves(square, Attacks.rook(square, occupied) & targets, moves);
+            case KNIGHT -> addMoves(square, Attacks.knight(square) & targets, moves);
+            case BISHOP -> addMoves(square, Attacks.bishop(square, occupied) & targets, moves);
+            case PAWN -> generatePawnMoves(board, square, piece.getTeamColor(), allowed, enPassantSquare, moves);
+        }
+    }
+
+    private static void generatePawnMoves(ChessBoard board, int square, ChessGame.TeamColor pawnColor, long allowed,
+                                          int enPassantSquare, MoveList moves) {
+        long empty = ~board.getOccupied();
+        long pawn = Bitboards.bit(square);
+        long pushes;
+        if (pawnColor == ChessGame.TeamColor.WHITE) {
+            pushes = (pawn << 8) & empty;
+            pushes |= ((pushes & Bitboards.RANK_3) << 8) & empty;
+        } else {
+            pushes = (pawn >>> 8) & empty;
+            pushes |= ((pushes & Bitboards.RANK_6) >>> 8) & empty;
+        }
+        long captures = Attacks.pawn(pawnColor, square) & board.getTeamBitboard(ChessGame.opponent(pawnColor));
+        addPawnMoves(square, (pushes | captures) & allowed, moves);
+
+        if (enPassantSquare != Bitboards.NO_SQUARE
+            && Bitboards.contains(Attacks.pawn(pawnColor, square), enPassantSquare)) {
+            int captured = enPassantCapture(pawnColor, enPassantSquare);
+            if (Bitboards.contains(allowed, captured) && Bitboards.contains(
+                board.getBitboard(ChessGame.opponent(pawnColor), ChessPiece.PieceType.PAWN), captured)) {
+                moves.add(Move.encode(square, enPassantSquare));
+            }
+        }
+    }
+
+    private static void addMoves(int square, long targets, MoveList moves) {
+        for (; targets != 0; targets = Bitboards.popFirst(targets)) {
+            moves.add(Move.encode(square, Bitboards.first(targets)));
+        }
+    }
+
+    private static void addPawnMoves(int square, long targets, MoveList moves) {
+        int target;
+        for (; targets != 0; targets = Bitboards.popFirst(targets)) {
+            target = Bitboards.first(targets);
+            if (Bitboards.contains(Bitboards.RANK_1 | Bitboards.RANK_8, target)) {
+                moves.add(Move.encode(square, target, ChessPiece.PieceType.QUEEN));
+                moves.add(Move.encode(square, target, ChessPiece.PieceType.BISHOP));
+                moves.add(Move.encode(square, target, ChessPiece.PieceType.ROOK));
+                moves.add(Move.encode(square, target, ChessPiece.PieceType.KNIGHT));
+            } else {
+                moves.add(Move.encode(square, target));
+            }
+        }
+    }
+}
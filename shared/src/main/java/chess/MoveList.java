@@ -0,0 +1,64 @@
+package chess;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * A reusable buffer of int-encoded moves (see {@link Move}). Move generation
+ * appends to a list that the caller clears and reuses, so generating moves does
+ * not allocate.
+ */
+public class MoveList {
+
+    /**
+     * More than the most legal moves any chess position has (218)
+     */
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size = 0;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Materializes the moves as ChessMove objects for the public API
+     */
+    public Collection<ChessMove> toChessMoves() {
+        Collection<ChessMove> chessMoves = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            chessMoves.add(Move.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+}
@@ -0,0 +1,297 @@
+package chess;
+
+/**
+ * Reads and writes moves as text, in UCI coordinate form such as "e2e4" or
+ * "e7e8q", and in standard algebraic notation (SAN) such as "Nf3", "exd6",
+ * "Rad1", "e8=Q+" or "O-O".
+ * <p>
+ * Parsing works character by character on the text and matches it against the
+ * legal moves of the current position, so it needs no regular expressions
+ * or intermediate strings. Formatting appends to a caller's
+ * {@link StringBuilder}, which can be reused from move to move.
+ * <p>
+ * A codec keeps a move list to generate legal moves into, so use one per
+ * thread.
+ */
+public final class Notation {
+
+    private static final String PROMOTION_CHARS = "qbnr";
+    // Letters by piece type ordinal; pawns have none
+    private static final String PIECE_LETTERS = "KQBNR";
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private final MoveList moves = new MoveList();
+
+    /**
+     * @return the legal move the text names in either notation, or
+     * {@link Move#NONE} if it names none
+     */
+    public int parse(ChessGame game, CharSequence text) {
+        int move = parseUci(game, text);
+        return move != Move.NONE ? move : parseSan(game, text);
+    }
+
+    /**
+     * @param text a move in coordinate form such as "e2e4" or "e7e8q"; castling
+     *             is the king's move, such as "e1g1"
+     * @return the legal move it names, or {@link Move#NONE}
+     */
+    public int parseUci(ChessGame game, CharSequence text) {
+        if (text.length() != 4 && text.length() != 5) {
+            return Move.NONE;
+        }
+        int from = square(text, 0);
+        int to = square(text, 2);
+        if (from == Bitboards.NO_SQUARE || to == Bitboards.NO_SQUARE) {
+            return Move.NONE;
+        }
+        int move = Move.encode(from, to);
+        if (text.length() == 5) {
+            int promotion = PROMOTION_CHARS.indexOf(Character.toLowerCase(text.charAt(4)));
+            if (promotion < 0) {
+                return Move.NONE;
+            }
+            move = Move.encode(from, to, promotionType(promotion));
+        }
+        moves.clear();
+        game.generateValidMoves(game.getTeamTurn(), moves);
+        return moves.contains(move) ? move : Move.NONE;
+    }
+
+    /**
+     * Reads standard algebraic notation. Capture marks, check and mate marks,
+     * annotations such as "!?" and long-algebraic hyphens are optional, and
+     * castling may be written with letter O or digit 0.
+     *
+     * @param text a move such as "Nbd7", "exd8=Q+" or "O-O-O"
+     * @return the legal move it names, or {@link Move#NONE} if it names none or
+     * is ambiguous
+     */
+    public int parseSan(ChessGame game, CharSequence text) {
+        int end = text.length();
+        while (end > 0 && isSuffix(text.charAt(end - 1))) {
+            end--;
+        }
+        moves.clear();
+        game.generateValidMoves(game.getTeamTurn(), moves);
+
+        int castling = castlingSide(text, end);
+        if (castling != 0) {
+            int king = game.getBoard().getKingSquare(game.getTeamTurn());
+            int move = king == Bitboards.NO_SQUARE ? Move.NONE : Move.encode(king, king + castling);
+            return moves.contains(move) ? move : Move.NONE;
+        }
+
+        int start = 0;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (end > 0 && pieceType(text.charAt(0)) != null) {
+            type = pieceType(text.charAt(0));
+            start = 1;
+        }
+        ChessPiece.PieceType promotion = null;
+        if (end - start > 2 && type == ChessPiece.PieceType.PAWN) {
+            char last = text.charAt(end - 1);
+            if (text.charAt(end - 2) == '=') {
+                promotion = pieceType(Character.toUpperCase(last));
+                end -= 2;
+            } else if (last >= 'A' && last <= 'Z') {
+                promotion = pieceType(last);
+                end--;
+            }
+        }
+        if (end - start < 2) {
+            return Move.NONE;
+        }
+        int to = square(text, end - 2);
+        if (to == Bitboards.NO_SQUARE) {
+            return Move.NONE;
+        }
+
+        // Whatever is left between the piece letter and the target narrows down the start square
+        int fromColumn = 0;
+        int fromRow = 0;
+        for (int i = start; i < end - 2; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromColumn = c - 'a' + 1;
+            } else if (c >= '1' && c <= '8') {
+                fromRow = c - '0';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return Move.NONE;
+            }
+        }
+
+        ChessBoard board = game.getBoard();
+        int found = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            if (Move.to(move) != to || board.getPieceIndex(from) % 6 != type.ordinal()
+                || (Move.isPromotion(move) ? Move.promotion(move) != promotion : promotion != null)
+                || (fromColumn != 0 && Bitboards.column(from) != fromColumn)
+                || (fromRow != 0 && Bitboards.row(from) != fromRow)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                return Move.NONE;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * Appends a move in coordinate form, such as "e2e4" or "e7e8q"
+     *
+     * @return the builder
+     */
+    public static StringBuilder appendUci(StringBuilder builder, int move) {
+        Fen.appendSquare(builder, Move.from(move));
+        Fen.appendSquare(builder, Move.to(move));
+        if (Move.isPromotion(move)) {
+            builder.append(switch (Move.promotion(move)) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                default -> 'n';
+            });
+        }
+        return builder;
+    }
+
+    /**
+     * @return a move in coordinate form, see {@link #appendUci}
+     */
+    public static String toUci(int move) {
+        return appendUci(new StringBuilder(5), move).toString();
+    }
+
+    /**
+     * Appends a legal move of the team to move in standard algebraic notation,
+     * with the start file, rank or both added only when another piece of the
+     * same kind could also reach the target, and "+" or "#" for check and
+     * mate. Working out the mark plays the move and takes it back.
+     *
+     * @return the builder
+     */
+    public StringBuilder appendSan(StringBuilder builder, ChessGame game, int move) {
+        ChessBoard board = game.getBoard();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int type = board.getPieceIndex(from) % 6;
+
+        if (type == ChessPiece.PieceType.KING.ordinal() && Math.abs(to - from) == 2) {
+            builder.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            boolean capture = game.capturedPiece(move) != ChessPiece.NO_PIECE;
+            if (type == ChessPiece.PieceType.PAWN.ordinal()) {
+                if (capture) {
+                    builder.append((char) ('a' + Bitboards.column(from) - 1));
+                }
+            } else {
+                builder.append(PIECE_LETTERS.charAt(type));
+                appendDisambiguation(builder, game, move, type);
+            }
+            if (capture) {
+                builder.append('x');
+            }
+            Fen.appendSquare(builder, to);
+            if (Move.isPromotion(move)) {
+                builder.append('=').append(PIECE_LETTERS.charAt(Move.promotion(move).ordinal()));
+            }
+        }
+
+        game.doMove(move);
+        ChessGame.TeamColor opponent = game.getTeamTurn();
+        if (game.isInCheck(opponent)) {
+            moves.clear();
+            game.generateValidMoves(opponent, moves);
+            builder.append(moves.isEmpty() ? '#' : '+');
+        }
+        game.undoMove();
+        return builder;
+    }
+
+    /**
+     * @return a move in standard algebraic notation, see {@link #appendSan}
+     */
+    public String toSan(ChessGame game, int move) {
+        return appendSan(new StringBuilder(8), game, move).toString();
+    }
+
+    private void appendDisambiguation(StringBuilder builder, ChessGame game, int move, int type) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessBoard board = game.getBoard();
+        moves.clear();
+        game.generateValidMoves(game.getTeamTurn(), moves);
+        boolean ambiguous = false;
+        boolean sameColumn = false;
+        boolean sameRow = false;
+        for (int i = 0; i < moves.size(); i++) {
+            int other = Move.from(moves.get(i));
+            if (Move.to(moves.get(i)) == to && other != from && board.getPieceIndex(other) % 6 == type) {
+                ambiguous = true;
+                sameColumn |= Bitboards.column(other) == Bitboards.column(from);
+                sameRow |= Bitboards.row(other) == Bitboards.row(from);
+            }
+        }
+        if (ambiguous && (!sameColumn || sameRow)) {
+            builder.append((char) ('a' + Bitboards.column(from) - 1));
+        }
+        if (sameColumn) {
+            builder.append((char) ('0' + Bitboards.row(from)));
+        }
+    }
+
+    /**
+     * @return the king's step toward the rook for castling written as "O-O" or
+     * "O-O-O", with letter O or digit 0, or zero for anything else
+     */
+    private static int castlingSide(CharSequence text, int end) {
+        if (end != 3 && end != 5) {
+            return 0;
+        }
+        char o = text.charAt(0);
+        if (o != 'O' && o != '0') {
+            return 0;
+        }
+        for (int i = 1; i < end; i++) {
+            if (text.charAt(i) != (i % 2 == 1 ? '-' : o)) {
+                return 0;
+            }
+        }
+        return end == 3 ? 2 : -2;
+    }
+
+    /**
+     * @return the square written at an offset, such as "e4", or
+     * {@link Bitboards#NO_SQUARE}
+     */
+    private static int square(CharSequence text, int offset) {
+        char column = text.charAt(offset);
+        char row = text.charAt(offset + 1);
+        if (column < 'a' || column > 'h' || row < '1' || row > '8') {
+            return Bitboards.NO_SQUARE;
+        }
+        return Bitboards.square(row - '0', column - 'a' + 1);
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static ChessPiece.PieceType promotionType(int index) {
+        return switch (index) {
+            case 0 -> ChessPiece.PieceType.QUEEN;
+            case 1 -> ChessPiece.PieceType.BISHOP;
+            case 2 -> ChessPiece.PieceType.KNIGHT;
+            default -> ChessPiece.PieceType.ROOK;
+        };
+    }
+
+    private static ChessPiece.PieceType pieceType(char c) {
+        int type = PIECE_LETTERS.indexOf(c);
+        return type < 0 ? null : TYPES[type];
+    }
+}
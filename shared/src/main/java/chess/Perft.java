@@ -0,0 +1,238 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"). The
+ * counts for well known positions are published, so comparing against them
+ * checks the move generator, and timing them measures its speed.
+ * <p>
+ * Usage:
+ * <pre>
+ *   Perft [--divide] [--threads N] depth [fen]
+ *   Perft --suite [maxDepth]
+ * </pre>
+ */
+public class Perft {
+
+    /**
+     * A position with its known node counts
+     *
+     * @param nodes node counts for depth 1, 2, ...
+     */
+    public record SuitePosition(String name, String fen, long... nodes) {}
+
+    public static final List<SuitePosition> SUITE = List.of(
+        new SuitePosition("startpos", Fen.START_POSITION,
+            20, 400, 8_902, 197_281, 4_865_609),
+        new SuitePosition("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48, 2_039, 97_862, 4_085_603),
+        new SuitePosition("position3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14, 191, 2_812, 43_238, 674_624),
+        new SuitePosition("position4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            6, 264, 9_467, 422_333),
+        new SuitePosition("position5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            44, 1_486, 62_379, 2_103_487),
+        new SuitePosition("position6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            46, 2_079, 89_890, 3_894_594)
+    );
+
+    private final ChessGame game;
+    private MoveList[] moveLists = new MoveList[0];
+
+    public Perft(ChessGame game) {
+        this.game = game;
+    }
+
+    /**
+     * @return the number of leaf nodes at the given depth, which is 1 at depth 0
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    public long count(int depth) {
+        ensureDepth(depth);
+        return count(depth, 0);
+    }
+
+    /**
+     * @return the leaf node count below each legal move, keyed by the move in
+     * coordinate form such as "e2e4"; empty at depth 0, which plays no moves
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    public Map<String, Long> divide(int depth) {
+        ensureDepth(depth);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (depth == 0) {
+            return counts;
+        }
+        MoveList moves = moveLists[0];
+        moves.clear();
+        game.generateValidMoves(game.getTeamTurn(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            counts.put(Notation.toUci(moves.get(i)), count(depth - 1, 1));
+            game.undoMove();
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the leaf nodes with the root moves split across a fork-join pool.
+     * Each root move is searched on its own copy of the position.
+     */
+    public static long countParallel(ChessGame game, int depth, int threads) {
+        if (depth < 2) {
+            return new Perft(game).count(depth);
+        }
+        Position position = game.snapshot();
+        MoveList moves = new MoveList();
+        game.generateValidMoves(game.getTeamTurn(), moves);
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            return pool.invoke(new RecursiveTask<Long>() {
+                @Override
+                protected Long compute() {
+                    RootMoveTask[] tasks = new RootMoveTask[moves.size()];
+                    for (int i = 0; i < tasks.length; i++) {
+                        tasks[i] = new RootMoveTask(position, moves.get(i), depth - 1);
+                        tasks[i].fork();
+                    }
+                    long nodes = 0;
+                    for (RootMoveTask task : tasks) {
+                        nodes += task.join();
+                    }
+                    return nodes;
+                }
+            });
+        }
+    }
+
+    private static class RootMoveTask extends RecursiveTask<Long> {
+
+        private final Position position;
+        private final int move;
+        private final int depth;
+
+        RootMoveTask(Position position, int move, int depth) {
+            this.position = position;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            ChessGame copy = position.toGame();
+            copy.doMove(move);
+            return new Perft(copy).count(depth);
+        }
+    }
+
+    private long count(int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.generateValidMoves(game.getTeamTurn(), moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(depth - 1, ply + 1);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    private void ensureDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Perft depth cannot be negative: " + depth);
+        }
+        if (moveLists.length < depth + 1) {
+            moveLists = new MoveList[depth + 1];
+            for (int i = 0; i < moveLists.length; i++) {
+                moveLists[i] = new MoveList();
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        boolean divide = false;
+        boolean suite = false;
+        int threads = 1;
+        int depth = -1;
+        StringBuilder fen = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--divide" -> divide = true;
+                case "--suite" -> suite = true;
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> {
+                    if (depth < 0) {
+                        depth = Integer.parseInt(args[i]);
+                    } else {
+                        fen.append(args[i]).append(' ');
+                    }
+                }
+            }
+        }
+
+        if (suite) {
+            runSuite(depth < 0 ? Integer.MAX_VALUE : depth, threads);
+            return;
+        }
+        if (depth < 0) {
+            System.out.println("Usage: Perft [--divide] [--threads N] depth [fen] | Perft --suite [maxDepth]");
+            return;
+        }
+
+        ChessGame game = Fen.parse(fen.isEmpty() ? Fen.START_POSITION : fen.toString());
+        long start = System.nanoTime();
+        long nodes;
+        if (divide) {
+            nodes = 0;
+            for (Map.Entry<String, Long> entry : new Perft(game).divide(depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+            System.out.println();
+        } else {
+            nodes = threads > 1 ? countParallel(game, depth, threads) : new Perft(game).count(depth);
+        }
+        printTiming(nodes, System.nanoTime() - start);
+    }
+
+    private static void runSuite(int maxDepth, int threads) {
+        long totalNodes = 0;
+        long totalNanos = 0;
+        int failures = 0;
+        for (SuitePosition position : SUITE) {
+            ChessGame game = Fen.parse(position.fen());
+            int depth = Math.min(maxDepth, position.nodes().length);
+            long expected = position.nodes()[depth - 1];
+            long start = System.nanoTime();
+            long nodes = threads > 1 ? countParallel(game, depth, threads) : new Perft(game).count(depth);
+            long nanos = System.nanoTime() - start;
+            totalNodes += nodes;
+            totalNanos += nanos;
+            if (nodes != expected) {
+                failures++;
+            }
+            System.out.printf("%-10s depth %d  %,12d / %,12d  %-4s %,8d ms%n", position.name(), depth, nodes,
+                expected, nodes == expected ? "ok" : "FAIL", nanos / 1_000_000);
+        }
+        System.out.println();
+        printTiming(totalNodes, totalNanos);
+        System.out.println(failures == 0 ? "All positions match" : failures + " position(s) do not match");
+    }
+
+    private static void printTiming(long nodes, long nanos) {
+        System.out.printf("Nodes: %,d%n", nodes);
+        System.out.printf("Time: %,d ms%n", nanos / 1_000_000);
+        System.out.printf("NPS: %,d%n", nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos);
+    }
+}
@@ -0,0 +1,133 @@
+package chess;
+
+/**
+ * An immutable snapshot of a game's position: the pieces, the team to move,
+ * the castling rights, the en-passant square, the move counters and the keys
+ * of the recent positions the repetition rule looks at.
+ * <p>
+ * Taking a snapshot with {@link ChessGame#snapshot()} is a handful of flat
+ * array copies, and a snapshot never changes afterwards, so it can be handed
+ * to other threads while the live game keeps moving. Each thread turns it
+ * back into a game of its own with {@link #toGame()}.
+ */
+public final class Position {
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor teamTurn;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final long positionKey;
+    private final long[] positionHistory;
+
+    /**
+     * @param board           a board no one else holds, which is never changed
+     * @param positionHistory a ring of position keys no one else holds
+     */
+    Position(ChessBoard board, ChessGame.TeamColor teamTurn, int castlingRights, int enPassantSquare,
+             int halfmoveClock, int fullmoveNumber, long positionKey, long[] positionHistory) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.positionKey = positionKey;
+        this.positionHistory = positionHistory;
+    }
+
+    /**
+     * @return a new game in this position, with the same repetition history
+     */
+    public ChessGame toGame() {
+        return new ChessGame(this);
+    }
+
+    /**
+     * @param square square index, see {@link Bitboards}
+     * @return the index of the piece on the square, or {@link ChessPiece#NO_PIECE}
+     */
+    public int getPieceIndex(int square) {
+        return board.getPieceIndex(square);
+    }
+
+    /**
+     * @param pieceIndex index of a color and piece type, see {@link ChessPiece#index()}
+     * @return the squares holding that kind of piece
+     */
+    public long getBitboard(int pieceIndex) {
+        return board.getBitboard(pieceIndex);
+    }
+
+    /**
+     * @return the squares holding any piece
+     */
+    public long getOccupied() {
+        return board.getOccupied();
+    }
+
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    /**
+     * @see ChessGame#getCastlingRights()
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @see ChessGame#getEnPassantSquare()
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @see ChessGame#positionKey()
+     */
+    public long positionKey() {
+        return positionKey;
+    }
+
+    ChessBoard copyBoard() {
+        return new ChessBoard(board);
+    }
+
+    long[] copyHistory() {
+        return positionHistory.clone();
+    }
+
+    /**
+     * Positions are equal when the pieces, the team to move, the castling
+     * rights, the en-passant square and the move counters are; the history
+     * is left out.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Position that = (Position) o;
+        return teamTurn == that.teamTurn
+            && castlingRights == that.castlingRights
+            && enPassantSquare == that.enPassantSquare
+            && halfmoveClock == that.halfmoveClock
+            && fullmoveNumber == that.fullmoveNumber
+            && board.equals(that.board);
+    }
+
+    @Override
+    public int hashCode() {
+        return (Long.hashCode(positionKey) * 31 + halfmoveClock) * 31 + fullmoveNumber;
+    }
+}
@@ -0,0 +1,72 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the keys of
+ * its pieces on their squares, plus keys for the side to move, the castling
+ * rights and the en-passant file, so a move can update it with a few XORs.
+ * <p>
+ * The keys come from a fixed seed so that they are the same on every run and
+ * keys written to disk stay valid.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_SQUARE = new long[ChessPiece.INDEX_COUNT][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (long[] squareKeys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                squareKeys[square] = splitMix(seed += 0x9E3779B97F4A7C15L);
+            }
+        }
+        // Each castling right gets a key, and a set of rights is the XOR of its members
+        long[] rightKeys = new long[4];
+        for (int i = 0; i < rightKeys.length; i++) {
+            rightKeys[i] = splitMix(seed += 0x9E3779B97F4A7C15L);
+        }
+        for (int rights = 0; rights < CASTLING.length; rights++) {
+            for (int i = 0; i < rightKeys.length; i++) {
+                if ((rights & (1 << i)) != 0) {
+                    CASTLING[rights] ^= rightKeys[i];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = splitMix(seed += 0x9E3779B97F4A7C15L);
+        }
+        BLACK_TO_MOVE = splitMix(seed + 0x9E3779B97F4A7C15L);
+    }
+
+    private Zobrist() {}
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    /**
+     * @param castlingRights castling rights bits, see {@link ChessGame#getCastlingRights()}
+     */
+    public static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    /**
+     * @param file 0-based file of the en-passant square
+     */
+    public static long enPassant(int file) {
+        return EN_PASSANT_FILE[file];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    private static long splitMix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,84 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Material plus midgame and endgame piece-square bonuses, blended by game phase
+ * (see {@link PieceSquareTables}).
+ * <p>
+ * While attached to a board the evaluator keeps the midgame sum, endgame sum
+ * and phase up to date as pieces are put on and taken off it, so evaluating
+ * that board is constant time. Any other board is summed square by square.
+ */
+public class ClassicalEvaluator implements Evaluator, ChessBoard.PieceListener {
+
+    private ChessBoard board;
+    private int midgame;
+    private int endgame;
+    private int phase;
+
+    @Override
+    public void attach(ChessBoard board) {
+        detach();
+        this.board = board;
+        midgame = 0;
+        endgame = 0;
+        phase = 0;
+        board.addPieceListener(this);
+    }
+
+    @Override
+    public void detach() {
+        if (board != null) {
+            board.removePieceListener(this);
+            board = null;
+        }
+    }
+
+    @Override
+    public void pieceAdded(int square, int pieceIndex) {
+        midgame += PieceSquareTables.midgame(pieceIndex, square);
+        endgame += PieceSquareTables.endgame(pieceIndex, square);
+        phase += PieceSquareTables.phase(pieceIndex);
+    }
+
+    @Override
+    public void pieceRemoved(int square, int pieceIndex) {
+        midgame -= PieceSquareTables.midgame(pieceIndex, square);
+        endgame -= PieceSquareTables.endgame(pieceIndex, square);
+        phase -= PieceSquareTables.phase(pieceIndex);
+    }
+
+    @Override
+    public int evaluate(ChessGame game) {
+        int score;
+        if (game.getBoard() == board) {
+            score = PieceSquareTables.taper(midgame, endgame, phase);
+        } else {
+            score = evaluateBoard(game.getBoard());
+        }
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * @return the score of a board from White's point of view, summed over its pieces
+     */
+    static int evaluateBoard(ChessBoard board) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        int square;
+        for (int pieceIndex = 0; pieceIndex < ChessPiece.INDEX_COUNT; pieceIndex++) {
+            for (long pieces = board.getBitboard(pieceIndex); pieces != 0; pieces = Bitboards.popFirst(pieces)) {
+                square = Bitboards.first(pieces);
+                midgame += PieceSquareTables.midgame(pieceIndex, square);
+                endgame += PieceSquareTables.endgame(pieceIndex, square);
+                phase += PieceSquareTables.phase(pieceIndex);
+            }
+        }
+        return PieceSquareTables.taper(midgame, endgame, phase);
+    }
+}
@@ -0,0 +1,185 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Finds moves for a {@link ChessGame}. An engine keeps its transposition table
+ * and move ordering statistics between searches, so it plays best when it is
+ * reused for the successive positions of one game.
+ * <p>
+ * The main search runs on the caller's thread and works on the given game in
+ * place with {@link ChessGame#doMove(int)} and {@link ChessGame#undoMove()},
+ * leaving it as it found it. Nothing else may use the game during the search,
+ * and an engine runs one search at a time; {@link #stop()} is the only method
+ * that may be called from another thread.
+ * <p>
+ * With more than one thread the engine searches "Lazy SMP" style: helper
+ * threads search copies of the position at the same time, sharing the
+ * transposition table, so each thread finds the others' results for positions
+ * it reaches. The helpers spread over different depths; when the main search
+ * is done they are stopped, and the result from the deepest completed
+ * iteration of any thread is returned.
+ */
+public class Engine implements AutoCloseable {
+
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final ExecutorService helpers;
+
+    public Engine() {
+        this(DEFAULT_HASH_MEGABYTES);
+    }
+
+    public Engine(long hashMegabytes) {
+        this(hashMegabytes, 1);
+    }
+
+    public Engine(long hashMegabytes, int threads) {
+        this(hashMegabytes, threads, ClassicalEvaluator::new);
+    }
+
+    /**
+     * @param evaluators makes an evaluator for each search thread
+     */
+    public Engine(long hashMegabytes, int threads, Supplier<? extends Evaluator> evaluators) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("An engine needs at least one thread: " + threads);
+        }
+        table = new TranspositionTable(hashMegabytes);
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(i, table, evaluators.get());
+        }
+        helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, null);
+    }
+
+    /**
+     * @param listener told about each completed iteration of the main search, or null
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, Consumer<SearchResult> listener) {
+        try {
+            return runSearches(game, limits, listener);
+        } finally {
+            // A stop is for one search; the next starts fresh
+            prepare();
+        }
+    }
+
+    private SearchResult runSearches(ChessGame game, SearchLimits limits, Consumer<SearchResult> listener) {
+        table.newSearch();
+        if (helpers == null) {
+            return searches[0].run(game, limits, listener);
+        }
+
+        // Helpers only stop by depth or when told to; the main search applies the other limits
+        Position position = game.snapshot();
+        SearchLimits helperLimits = SearchLimits.depth(limits.depth());
+        List<Future<SearchResult>> helperResults = new ArrayList<>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            helperResults.add(helpers.submit(() -> helper.run(position.toGame(), helperLimits, null)));
+        }
+
+        SearchResult best;
+        try {
+            best = searches[0].run(game, limits, listener);
+        } finally {
+            for (int i = 1; i < searches.length; i++) {
+                searches[i].stop();
+            }
+        }
+        long nodes = best.nodes();
+        for (Future<SearchResult> helperResult : helperResults) {
+            SearchResult result = awaitHelper(helperResult);
+            nodes += result.nodes();
+            if (result.bestMove() != Move.NONE && (result.depth() > best.depth()
+                || (result.depth() == best.depth() && result.score() > best.score()))) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), nodes, best.timeMillis(),
+            best.principalVariation());
+    }
+
+    /**
+     * Makes a running search return its last completed iteration, or the next
+     * search return after its first iteration if none is running
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Forgets a {@link #stop()} sent while no search was running. Call this
+     * before handing a search to another thread, rather than leaving it to the
+     * search, so a stop sent in between is not lost.
+     */
+    public void prepare() {
+        for (Search search : searches) {
+            search.clearStop();
+        }
+    }
+
+    /**
+     * Forgets what earlier searches learned, for when the next search is in an
+     * unrelated game
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * @return how full the transposition table is, in parts per thousand
+     */
+    public int hashfull() {
+        return table.hashfull();
+    }
+
+    /**
+     * Ends the helper threads
+     */
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static SearchResult awaitHelper(Future<SearchResult> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search helper", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A search helper failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * Scores a position statically, without searching. A search attaches its
+ * evaluator to the board it searches for the duration of the search, so an
+ * evaluator can follow the moves made on the board instead of looking at the
+ * whole board at every leaf.
+ */
+public interface Evaluator {
+
+    default void attach(ChessBoard board) {}
+
+    default void detach() {}
+
+    /**
+     * @return the score in centipawns from the point of view of the team to move
+     */
+    int evaluate(ChessGame game);
+}
@@ -0,0 +1,173 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Piece values and piece-square tables, after Tomasz Michniewski's "Simplified
+ * Evaluation Function". The tables below read like a board from White's side,
+ * rank 8 first; Black's pieces use them mirrored.
+ * <p>
+ * Kings and pawns have separate endgame tables: the king should come to the
+ * center once there is little left to attack it, and passed pawns matter more
+ * the closer they get to promoting. A position's score blends the midgame and
+ * endgame sums by its game phase, which counts down from {@link #MAX_PHASE}
+ * as minor and major pieces come off the board.
+ */
+public final class PieceSquareTables {
+
+    /**
+     * Piece values in centipawns by {@link ChessPiece.PieceType} ordinal. The
+     * king has no material value since it is never traded.
+     */
+    public static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    /** The phase of a position with all its pieces */
+    public static final int MAX_PHASE = 24;
+
+    /** How much each piece type adds to the game phase, by {@link ChessPiece.PieceType} ordinal */
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+    private static final int[] KING = {
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+         20,  20,   0,   0,   0,   0,  20,  20,
+         20,  30,  10,   0,   0,  10,  30,  20,
+    };
+
+    private static final int[] KING_ENDGAME = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10,   0,   0, -10, -20, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -30,   0,   0,   0,   0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50,
+    };
+
+    private static final int[] QUEEN = {
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,   5,   5,   5,   0, -10,
+         -5,   0,   5,   5,   5,   5,   0,  -5,
+          0,   0,   5,   5,   5,   5,   0,  -5,
+        -10,   5,   5,   5,   5,   5,   0, -10,
+        -10,   0,   5,   0,   0,   0,   0, -10,
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+    };
+
+    private static final int[] BISHOP = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,  10,  10,   5,   0, -10,
+        -10,   5,   5,  10,  10,   5,   5, -10,
+        -10,   0,  10,  10,  10,  10,   0, -10,
+        -10,  10,  10,  10,  10,  10,  10, -10,
+        -10,   5,   0,   0,   0,   0,   5, -10,
+        -20, -10, -10, -10, -10, -10, -10, -20,
+    };
+
+    private static final int[] KNIGHT = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20,   0,   0,   0,   0, -20, -40,
+        -30,   0,  10,  15,  15,  10,   0, -30,
+        -30,   5,  15,  20,  20,  15,   5, -30,
+        -30,   0,  15,  20,  20,  15,   0, -30,
+        -30,   5,  10,  15,  15,  10,   5, -30,
+        -40, -20,   0,   5,   5,   0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50,
+    };
+
+    private static final int[] ROOK = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+          5,  10,  10,  10,  10,  10,  10,   5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+          0,   0,   0,   5,   5,   0,   0,   0,
+    };
+
+    private static final int[] PAWN = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         10,  10,  20,  30,  30,  20,  10,  10,
+          5,   5,  10,  25,  25,  10,   5,   5,
+          0,   0,   0,  20,  20,   0,   0,   0,
+          5,  -5, -10,   0,   0, -10,  -5,   5,
+          5,  10,  10, -20, -20,  10,  10,   5,
+          0,   0,   0,   0,   0,   0,   0,   0,
+    };
+
+    private static final int[] PAWN_ENDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         80,  80,  80,  80,  80,  80,  80,  80,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         30,  30,  30,  30,  30,  30,  30,  30,
+         15,  15,  15,  15,  15,  15,  15,  15,
+          5,   5,   5,   5,   5,   5,   5,   5,
+          0,   0,   0,   0,   0,   0,   0,   0,
+          0,   0,   0,   0,   0,   0,   0,   0,
+    };
+
+    // Value plus square bonus by piece index and square, signed for White
+    private static final int[][] MIDGAME = new int[ChessPiece.INDEX_COUNT][64];
+    private static final int[][] ENDGAME = new int[ChessPiece.INDEX_COUNT][64];
+
+    static {
+        int[][] midgameTables = {KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN};
+        int[][] endgameTables = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int sign = color == ChessGame.TeamColor.WHITE ? 1 : -1;
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int pieceIndex = ChessPiece.index(color, type);
+                for (int square = 0; square < 64; square++) {
+                    // The tables start at a8; White's a1 is index 56 and Black's a1 is Black's a8
+                    int tableIndex = color == ChessGame.TeamColor.WHITE ? square ^ 56 : square;
+                    int value = PIECE_VALUES[type.ordinal()];
+                    MIDGAME[pieceIndex][square] = sign * (value + midgameTables[type.ordinal()][tableIndex]);
+                    ENDGAME[pieceIndex][square] = sign * (value + endgameTables[type.ordinal()][tableIndex]);
+                }
+            }
+        }
+    }
+
+    private PieceSquareTables() {}
+
+    /**
+     * @return the value of a piece plus its midgame bonus for standing on a
+     * square, positive for White and negative for Black
+     */
+    public static int midgame(int pieceIndex, int square) {
+        return MIDGAME[pieceIndex][square];
+    }
+
+    /**
+     * @return the value of a piece plus its endgame bonus for standing on a
+     * square, positive for White and negative for Black
+     */
+    public static int endgame(int pieceIndex, int square) {
+        return ENDGAME[pieceIndex][square];
+    }
+
+    /**
+     * @return how much a piece adds to the game phase
+     */
+    public static int phase(int pieceIndex) {
+        return PHASE_WEIGHTS[pieceIndex % 6];
+    }
+
+    /**
+     * Blends midgame and endgame scores by game phase
+     */
+    public static int taper(int midgame, int endgame, int phase) {
+        phase = Math.min(phase, MAX_PHASE);
+        return (midgame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+}
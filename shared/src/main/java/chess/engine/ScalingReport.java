@@ -0,0 +1,70 @@
+package chess.engine;
+
+import chess.Fen;
+import chess.Perft;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how the parallel search scales: the time each thread count takes to
+ * finish a fixed depth on the {@link Perft#SUITE} positions, and the speedup
+ * over one thread. Every run starts from an empty transposition table.
+ * <p>
+ * Usage:
+ * <pre>
+ *   ScalingReport [depth] [threads...]
+ * </pre>
+ * The defaults are depth 9 and 1, 2, 4, 8 and 16 threads. Thread counts above
+ * the machine's processor count cannot speed anything up.
+ */
+public class ScalingReport {
+
+    private static final int HASH_MEGABYTES = 64;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            threadCounts.add(Integer.parseInt(args[i]));
+        }
+        if (threadCounts.isEmpty()) {
+            threadCounts = List.of(1, 2, 4, 8, 16);
+        }
+
+        System.out.printf("Time to depth %d, %d processor(s) available%n%n", depth,
+            Runtime.getRuntime().availableProcessors());
+        // Warm up the JIT so the first row is not penalized
+        timeToDepth(Perft.SUITE.get(0).fen(), Math.max(1, depth - 2), 1);
+
+        System.out.printf("%-8s", "threads");
+        for (Perft.SuitePosition position : Perft.SUITE) {
+            System.out.printf("%11s", position.name());
+        }
+        System.out.printf("%11s%9s%14s%n", "total ms", "speedup", "nps");
+
+        long baseline = 0;
+        for (int threads : threadCounts) {
+            System.out.printf("%-8d", threads);
+            long totalMillis = 0;
+            long totalNodes = 0;
+            for (Perft.SuitePosition position : Perft.SUITE) {
+                SearchResult result = timeToDepth(position.fen(), depth, threads);
+                System.out.printf("%,11d", result.timeMillis());
+                totalMillis += result.timeMillis();
+                totalNodes += result.nodes();
+            }
+            if (baseline == 0) {
+                baseline = totalMillis;
+            }
+            System.out.printf("%,11d%9.2f%,14d%n", totalMillis, (double) baseline / Math.max(1, totalMillis),
+                totalNodes * 1000 / Math.max(1, totalMillis));
+        }
+    }
+
+    private static SearchResult timeToDepth(String fen, int depth, int threads) {
+        try (Engine engine = new Engine(HASH_MEGABYTES, threads)) {
+            return engine.search(Fen.parse(fen), SearchLimits.depth(depth));
+        }
+    }
+}
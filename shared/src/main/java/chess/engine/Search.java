@@ -0,0 +1,448 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Iterative-deepening principal variation search with a quiescence search at
+ * the leaves. Each iteration searches one ply deeper than the last, seeded by
+ * the transposition table and move ordering statistics of the ones before, so
+ * the deepest finished iteration is always available when a limit is hit.
+ * <p>
+ * Moves are tried in the order: transposition table move, captures that do
+ * not lose material by most valuable victim and least valuable attacker,
+ * promotions, the two killer moves of the ply, captures that lose material
+ * (by static exchange evaluation), then quiet moves by history score. The
+ * quiescence search skips losing captures altogether.
+ * <p>
+ * A search owns its buffers and is not thread-safe. For a parallel search,
+ * several searches share a transposition table, each on its own copy of the
+ * game (see {@link Engine}). Search 0 is the main search; the others are
+ * helpers, which skip some iterations so that the threads spread over
+ * different depths, and which may be stopped at any time.
+ */
+final class Search {
+
+    static final int MAX_PLY = 128;
+    static final int INFINITY = 32_000;
+    /** The score of being mated at the root; being mated n plies from the root scores -(MATE - n) */
+    static final int MATE = 31_000;
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 29;
+    private static final int PROMOTION_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int BAD_CAPTURE_SCORE = 1 << 26;
+    private static final int HISTORY_LIMIT = 1 << 20;
+    private static final int CHECK_INTERVAL = 1024;
+    // Which iterations a helper skips: helper i skips depth d when
+    // ((d + SKIP_PHASE[i]) / SKIP_SIZE[i]) is odd, which is the pattern the
+    // Stockfish authors used for Lazy SMP
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final int id;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] moveScores = new int[MAX_PLY][MoveList.CAPACITY];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[ChessPiece.INDEX_COUNT][64];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    private ChessGame game;
+    private ChessBoard board;
+    private int rootDepth;
+    private int completedDepth;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+
+    /**
+     * @param id 0 for the main search, or a helper number
+     */
+    Search(int id, TranspositionTable table, Evaluator evaluator) {
+        this.id = id;
+        this.table = table;
+        this.evaluator = evaluator;
+        for (int i = 0; i < MAX_PLY; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches a game in place and restores it before returning
+     *
+     * @param listener told about each completed iteration, or null
+     */
+    SearchResult run(ChessGame game, SearchLimits limits, Consumer<SearchResult> listener) {
+        this.game = game;
+        this.board = game.getBoard();
+        long start = System.currentTimeMillis();
+        nodes = 0;
+        nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+        deadline = limits.timeMillis() > 0 ? start + limits.timeMillis() : Long.MAX_VALUE;
+        stopped = false;
+        completedDepth = 0;
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+        for (int[] pieceHistory : history) {
+            for (int square = 0; square < 64; square++) {
+                pieceHistory[square] >>= 1;
+            }
+        }
+
+        SearchResult result;
+        evaluator.attach(board);
+        try {
+            result = iterate(limits, start, listener);
+        } finally {
+            evaluator.detach();
+        }
+        this.game = null;
+        this.board = null;
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes,
+            System.currentTimeMillis() - start, result.principalVariation());
+    }
+
+    private SearchResult iterate(SearchLimits limits, long start, Consumer<SearchResult> listener) {
+        int maxDepth = limits.depth() > 0 ? Math.min(limits.depth(), MAX_PLY - 1) : MAX_PLY - 1;
+        SearchResult result = new SearchResult(Move.NONE, 0, 0, 0, 0, new int[0]);
+        for (rootDepth = 1; rootDepth <= maxDepth; rootDepth++) {
+            if (skipIteration()) {
+                continue;
+            }
+            int score = search(-INFINITY, INFINITY, rootDepth, 0, true);
+            if (stopped) {
+                break;
+            }
+            completedDepth = rootDepth;
+            long elapsed = System.currentTimeMillis() - start;
+            result = new SearchResult(pvLength[0] > 0 ? pv[0][0] : Move.NONE, score, rootDepth, nodes, elapsed,
+                Arrays.copyOf(pv[0], pvLength[0]));
+            if (listener != null) {
+                listener.accept(result);
+            }
+            // An iteration takes several times as long as the one before, so one
+            // started past half the budget would rarely finish
+            if (result.bestMove() == Move.NONE || result.isMate() || nodes >= nodeLimit
+                || (limits.timeMillis() > 0 && elapsed * 2 > limits.timeMillis())) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Asks a running search, or the next one if none is running, to return its
+     * last completed iteration
+     */
+    void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Undoes {@link #stop()} ahead of the next search
+     */
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * @return the nodes visited by the running or last search
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    private boolean skipIteration() {
+        if (id == 0) {
+            return false;
+        }
+        int helper = (id - 1) % SKIP_SIZE.length;
+        return ((rootDepth + SKIP_PHASE[helper]) / SKIP_SIZE[helper]) % 2 == 1;
+    }
+
+    private int search(int alpha, int beta, int depth, int ply, boolean pvNode) {
+        pvLength[ply] = ply;
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        nodes++;
+        if (checkLimits()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(game);
+        }
+        // Either side can steer back into a repeated position, so one repetition
+        // is enough to call it a draw
+        if (ply > 0 && (game.isRepetition() || game.isFiftyMoveDraw() || board.hasInsufficientMaterial())) {
+            return 0;
+        }
+
+        ChessGame.TeamColor team = game.getTeamTurn();
+        long key = game.positionKey();
+        int hashMove = Move.NONE;
+        long entry = table.probe(key);
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.generateValidMoves(team, moves);
+        if (moves.isEmpty()) {
+            return game.isInCheck(team) ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            boolean quiet = isQuiet(move);
+            game.doMove(move);
+            // Extend checks so a forcing line is not cut off at the horizon
+            int newDepth = game.isInCheck(game.getTeamTurn()) ? depth : depth - 1;
+            int score;
+            if (i == 0) {
+                score = -search(-beta, -alpha, newDepth, ply + 1, pvNode);
+            } else {
+                score = -search(-alpha - 1, -alpha, newDepth, ply + 1, false);
+                if (score > alpha && score < beta) {
+                    score = -search(-beta, -alpha, newDepth, ply + 1, true);
+                }
+            }
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        if (quiet) {
+                            rememberCutoff(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER
+            : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches captures only, so positions are not evaluated in the middle of an
+     * exchange. The side to move may stand pat on the static evaluation, except
+     * in check, where every evasion is searched.
+     */
+    private int quiesce(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        nodes++;
+        if (checkLimits()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(game);
+        }
+        // Captures cannot repeat a position, but they can leave too little to mate
+        if (board.hasInsufficientMaterial()) {
+            return 0;
+        }
+
+        ChessGame.TeamColor team = game.getTeamTurn();
+        boolean inCheck = game.isInCheck(team);
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        int bestScore;
+        if (inCheck) {
+            bestScore = -MATE + ply;
+            game.generateValidMoves(team, moves);
+        } else {
+            bestScore = evaluator.evaluate(game);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+            game.generateValidCaptures(team, moves);
+        }
+        scoreMoves(moves, ply, Move.NONE);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            if (!inCheck && moveScores[ply][i] < CAPTURE_SCORE && !Move.isPromotion(move)) {
+                // A capture that loses material will not improve on standing pat
+                continue;
+            }
+            game.doMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private boolean checkLimits() {
+        if (stopped) {
+            return true;
+        }
+        // The main search always finishes an iteration so there is a move to play
+        if ((completedDepth > 0 || id != 0) && (nodes >= nodeLimit || (nodes % CHECK_INTERVAL == 0
+            && (stopRequested || System.currentTimeMillis() >= deadline)))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private void scoreMoves(MoveList moves, int ply, int hashMove) {
+        int[] scores = moveScores[ply];
+        int killer0 = killers[ply][0];
+        int killer1 = killers[ply][1];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int victim = game.capturedPiece(move);
+            int attacker = board.getPieceIndex(Move.from(move));
+            if (move == hashMove) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (victim != ChessPiece.NO_PIECE) {
+                int mvvLva = pieceValue(victim) * 16 - pieceValue(attacker) / 16;
+                scores[i] = (losesMaterial(move, attacker, victim) ? BAD_CAPTURE_SCORE : CAPTURE_SCORE) + mvvLva;
+            } else if (Move.isPromotion(move)) {
+                scores[i] = PROMOTION_SCORE + PieceSquareTables.PIECE_VALUES[Move.promotion(move).ordinal()];
+            } else if (move == killer0) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == killer1) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = history[attacker][Move.to(move)];
+            }
+        }
+    }
+
+    /**
+     * Swaps the best scored of the remaining moves into place, which is cheaper
+     * than sorting when a cutoff comes early
+     */
+    private int pickNext(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Only a capture by a piece worth more than its victim can lose material,
+     * so the exchange is only worked out for those
+     */
+    private boolean losesMaterial(int move, int attacker, int victim) {
+        return pieceValue(attacker) > pieceValue(victim) && board.staticExchange(Move.from(move), Move.to(move)) < 0;
+    }
+
+    private boolean isQuiet(int move) {
+        return game.capturedPiece(move) == ChessPiece.NO_PIECE && !Move.isPromotion(move);
+    }
+
+    private void rememberCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] pieceHistory = history[board.getPieceIndex(Move.from(move))];
+        pieceHistory[Move.to(move)] += depth * depth;
+        if (pieceHistory[Move.to(move)] > HISTORY_LIMIT) {
+            for (int[] scores : history) {
+                for (int square = 0; square < 64; square++) {
+                    scores[square] >>= 1;
+                }
+            }
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, childLength - ply - 1);
+        pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+
+    private static int pieceValue(int pieceIndex) {
+        return PieceSquareTables.PIECE_VALUES[pieceIndex % 6];
+    }
+
+    /**
+     * Mate scores count plies from the root, but the table is shared between
+     * positions at any ply, so they are stored counted from the position instead
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
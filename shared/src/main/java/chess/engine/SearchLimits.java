@@ -0,0 +1,43 @@
+package chess.engine;
+
+/**
+ * How long a search may run. A search stops at whichever limit it reaches
+ * first; a limit of 0 means no limit of that kind.
+ *
+ * @param depth      the deepest iteration to search, in plies
+ * @param nodes      the most nodes to visit
+ * @param timeMillis the most wall-clock time to spend
+ */
+public record SearchLimits(int depth, long nodes, long timeMillis) {
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes, 0);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(0, 0, timeMillis);
+    }
+
+    /**
+     * @return limits that only end when the search is stopped
+     */
+    public static SearchLimits infinite() {
+        return new SearchLimits(0, 0, 0);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, nodes, timeMillis);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, nodes, timeMillis);
+    }
+
+    public SearchLimits withTime(long timeMillis) {
+        return new SearchLimits(depth, nodes, timeMillis);
+    }
+}
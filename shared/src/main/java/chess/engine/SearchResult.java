@@ -0,0 +1,43 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.Move;
+
+/**
+ * The outcome of the deepest completed search iteration
+ *
+ * @param bestMove           the int-encoded best move, or {@link Move#NONE} if
+ *                           the side to move has no legal move
+ * @param score              centipawns from the point of view of the side to
+ *                           move; see {@link #isMate()}
+ * @param depth              the depth of the iteration the result comes from
+ * @param nodes              the nodes visited by the whole search
+ * @param timeMillis         the time spent by the whole search
+ * @param principalVariation the expected line of play, starting with the best move
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long timeMillis,
+                           int[] principalVariation) {
+
+    /**
+     * @return the best move for the public API, or null if there is none
+     */
+    public ChessMove getBestMove() {
+        return bestMove == Move.NONE ? null : Move.toChessMove(bestMove);
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    /**
+     * @return the number of moves until mate, negative when the side to move is
+     * getting mated, or 0 if the score is not a mate score
+     */
+    public int getMateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+}
@@ -0,0 +1,188 @@
+package chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Remembers search results by position key, so a position reached again
+ * through another move order, in the next iteration or by another search
+ * thread is not searched again from scratch.
+ * <p>
+ * The entries live off the heap in direct buffers, so a table of gigabytes
+ * adds nothing to garbage collection work (the JVM caps direct memory at the
+ * heap size unless {@code -XX:MaxDirectMemorySize} says otherwise). Entries
+ * are 16 bytes, grouped four to a 64-byte bucket that shares a cache line.
+ * <p>
+ * Any number of threads may probe and store at once without locking. Each
+ * entry is written as two words, {@code key ^ data} and {@code data}, and a
+ * probe only accepts an entry whose words XOR back to its key. If two stores
+ * to an entry interleave, or a probe reads an entry halfway through a store,
+ * the words no longer match and the entry reads as a miss instead of as
+ * another position's result.
+ * <p>
+ * When a bucket is full, a store replaces the entry that is worth least:
+ * shallow entries, and entries left from earlier searches (see
+ * {@link #newSearch()}), go first.
+ */
+public class TranspositionTable {
+
+    /** The score is a lower bound: the search failed high */
+    public static final int LOWER = 1;
+    /** The score is an upper bound: the search failed low */
+    public static final int UPPER = 2;
+    public static final int EXACT = 3;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_BYTES = BUCKET_ENTRIES * ENTRY_BYTES;
+    /** A direct buffer holds less than 2 GB, so big tables are split into 1 GB chunks */
+    private static final int CHUNK_SHIFT = 30 - Integer.numberOfTrailingZeros(BUCKET_BYTES);
+    private static final long CHUNK_BUCKET_MASK = (1L << CHUNK_SHIFT) - 1;
+    /** How many plies of depth one search of age is worth when picking an entry to replace */
+    private static final int AGE_WEIGHT = 8;
+
+    private final ByteBuffer[] chunks;
+    private final long bucketMask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes the most memory to use; the bucket count is rounded down
+     *                  to a power of two
+     */
+    public TranspositionTable(long megabytes) {
+        long buckets = Long.highestOneBit(Math.max(1, megabytes * 1024 * 1024 / BUCKET_BYTES));
+        bucketMask = buckets - 1;
+        chunks = new ByteBuffer[(int) ((buckets + CHUNK_BUCKET_MASK) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long chunkBuckets = Math.min(buckets - ((long) i << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+            chunks[i] = ByteBuffer.allocateDirect((int) (chunkBuckets * BUCKET_BYTES)).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * @return the packed data stored for a position, or 0 if there is none
+     */
+    public long probe(long key) {
+        ByteBuffer chunk = chunk(key);
+        int bucket = bucketOffset(key);
+        for (int offset = bucket; offset < bucket + BUCKET_BYTES; offset += ENTRY_BYTES) {
+            long data = (long) LONGS.getOpaque(chunk, offset + Long.BYTES);
+            if (((long) LONGS.getOpaque(chunk, offset) ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        ByteBuffer chunk = chunk(key);
+        int bucket = bucketOffset(key);
+        int currentGeneration = generation;
+        int replace = bucket;
+        int replaceWorth = Integer.MAX_VALUE;
+        for (int offset = bucket; offset < bucket + BUCKET_BYTES; offset += ENTRY_BYTES) {
+            long data = (long) LONGS.getOpaque(chunk, offset + Long.BYTES);
+            if (((long) LONGS.getOpaque(chunk, offset) ^ data) == key) {
+                // A deeper result for the same position from this search is worth more
+                if (bound != EXACT && depth(data) > depth && generation(data) == currentGeneration) {
+                    return;
+                }
+                replace = offset;
+                break;
+            }
+            int worth = data == 0 ? Integer.MIN_VALUE
+                : depth(data) - AGE_WEIGHT * ((currentGeneration - generation(data)) & 0xFF);
+            if (worth < replaceWorth) {
+                replace = offset;
+                replaceWorth = worth;
+            }
+        }
+        long data = pack(move, score, depth, bound, currentGeneration);
+        LONGS.setOpaque(chunk, replace, key ^ data);
+        LONGS.setOpaque(chunk, replace + Long.BYTES, data);
+    }
+
+    /**
+     * Marks the entries stored so far as older, so they are replaced first.
+     * Call it before each search of a new position.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * @return how full the table is with entries from the current search, in
+     * parts per thousand, estimated from its first entries
+     */
+    public int hashfull() {
+        ByteBuffer chunk = chunks[0];
+        int sampled = Math.min(1000, chunk.capacity() / ENTRY_BYTES);
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            long data = (long) LONGS.getOpaque(chunk, i * ENTRY_BYTES + Long.BYTES);
+            if (data != 0 && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sampled;
+    }
+
+    /**
+     * Empties the table. Not safe while a search is using it.
+     */
+    public void clear() {
+        byte[] zeros = new byte[1 << 16];
+        for (ByteBuffer chunk : chunks) {
+            for (int offset = 0; offset < chunk.capacity(); offset += zeros.length) {
+                chunk.put(offset, zeros, 0, Math.min(zeros.length, chunk.capacity() - offset));
+            }
+        }
+        generation = 0;
+    }
+
+    /**
+     * @return the size of the table in bytes
+     */
+    public long size() {
+        return (bucketMask + 1) * BUCKET_BYTES;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 40) & 0x3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 42) & 0xFF;
+    }
+
+    static long pack(int move, int score, int depth, int bound, int generation) {
+        return (move & 0xFFFFL)
+            | ((score & 0xFFFFL) << 16)
+            | ((long) (depth & 0xFF) << 32)
+            | ((long) bound << 40)
+            | ((long) generation << 42);
+    }
+
+    private ByteBuffer chunk(long key) {
+        return chunks[(int) ((key & bucketMask) >>> CHUNK_SHIFT)];
+    }
+
+    private int bucketOffset(long key) {
+        return (int) (key & bucketMask & CHUNK_BUCKET_MASK) * BUCKET_BYTES;
+    }
+}
@@ -0,0 +1,390 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Move;
+import chess.Notation;
+import chess.Perft;
+import chess.engine.bitbase.BitbaseEvaluator;
+import chess.engine.bitbase.Bitbases;
+import chess.engine.book.OpeningBook;
+import chess.engine.nnue.Network;
+import chess.engine.nnue.NnueEvaluator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * A headless front end speaking the Universal Chess Interface on standard
+ * input and output, so tuning and testing tools can drive the engine.
+ * <p>
+ * Besides the standard commands it understands {@code go perft N}, which
+ * prints the node count below each move, and {@code bench [depth]}, which
+ * searches the {@link Perft#SUITE} positions with one thread and prints the
+ * total node count and speed. Commands given on the command line, such as
+ * {@code Uci bench}, are run in place of reading standard input.
+ * <p>
+ * The {@code EvalFile} option loads a {@link Network} and switches the engine
+ * to the NNUE evaluator; an empty value switches back to the classical one.
+ * The {@code BitbasePath} option names a directory of endgame bitbases to
+ * correct the evaluation with, and {@code BookFile} an {@link OpeningBook} to
+ * play from without searching while it knows the position.
+ */
+public class Uci {
+
+    private static final String NAME = "chess-engine";
+    private static final int DEFAULT_BENCH_DEPTH = 6;
+
+    private final PrintStream out;
+    private ChessGame game = Fen.parse(Fen.START_POSITION);
+    private Engine engine;
+    private long hashMegabytes = Engine.DEFAULT_HASH_MEGABYTES;
+    private int threads = 1;
+    private Supplier<? extends Evaluator> evaluators = ClassicalEvaluator::new;
+    private Bitbases bitbases;
+    private OpeningBook book;
+    private final Random random = new Random();
+    private final Notation notation = new Notation();
+    private Thread searchThread;
+
+    public Uci(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Uci uci = new Uci(System.out);
+        if (args.length > 0) {
+            uci.execute(String.join(" ", args));
+            uci.execute("quit");
+        } else {
+            uci.run(System.in);
+        }
+    }
+
+    /**
+     * Runs commands until "quit" or the end of the input
+     */
+    public void run(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!execute(line)) {
+                return;
+            }
+        }
+        execute("quit");
+    }
+
+    /**
+     * @return false once the command was "quit"
+     */
+    public boolean execute(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        String command = tokens[0];
+        // Everything but these waits for a running search, which is using the game, so a
+        // second "go" starts only once the first has printed its move
+        if (!command.equals("stop") && !command.equals("quit") && !command.equals("isready")) {
+            awaitSearch();
+        }
+        try {
+            switch (command) {
+                case "uci" -> {
+                    out.println("id name " + NAME);
+                    out.println("id author chess");
+                    out.println("option name Hash type spin default " + Engine.DEFAULT_HASH_MEGABYTES + " min 1 max 65536");
+                    out.println("option name Threads type spin default 1 min 1 max 512");
+                    out.println("option name EvalFile type string default <empty>");
+                    out.println("option name BitbasePath type string default <empty>");
+                    out.println("option name BookFile type string default <empty>");
+                    out.println("uciok");
+                }
+                case "isready" -> out.println("readyok");
+                case "setoption" -> setOption(tokens);
+                case "ucinewgame" -> {
+                    if (engine != null) {
+                        engine.clear();
+                    }
+                }
+                case "position" -> position(tokens);
+                case "go" -> go(tokens);
+                case "stop" -> {
+                    if (engine != null) {
+                        engine.stop();
+                    }
+                    awaitSearch();
+                }
+                case "bench" -> bench(tokens.length > 1 ? parseCount(tokens[1], 1) : DEFAULT_BENCH_DEPTH);
+                case "d" -> out.println(Fen.format(game));
+                case "quit" -> {
+                    if (engine != null) {
+                        engine.stop();
+                    }
+                    awaitSearch();
+                    if (engine != null) {
+                        engine.close();
+                    }
+                    return false;
+                }
+                case "" -> {}
+                default -> out.println("info string Unknown command: " + line.trim());
+            }
+        } catch (NumberFormatException e) {
+            // A missing or malformed number; tuning tools expect the engine to keep going
+            out.println("info string Bad command: " + line.trim());
+        }
+        out.flush();
+        return true;
+    }
+
+    private void setOption(String[] tokens) {
+        // setoption name <name> value <value>
+        if (tokens.length < 4 || !tokens[1].equals("name") || !tokens[3].equals("value")) {
+            out.println("info string Bad setoption command");
+            return;
+        }
+        // File names may contain spaces
+        String value = String.join(" ", Arrays.copyOfRange(tokens, 4, tokens.length));
+        switch (tokens[2].toLowerCase()) {
+            case "hash" -> hashMegabytes = parseCount(value, 1);
+            case "threads" -> threads = parseCount(value, 1);
+            case "evalfile" -> {
+                if (value.isEmpty() || value.equals("<empty>")) {
+                    evaluators = ClassicalEvaluator::new;
+                } else {
+                    try {
+                        Network network = Network.load(Path.of(value));
+                        evaluators = () -> new NnueEvaluator(network);
+                        out.println("info string Loaded network " + value);
+                    } catch (IOException e) {
+                        out.println("info string " + e.getMessage());
+                        return;
+                    }
+                }
+            }
+            case "bitbasepath" -> {
+                if (value.isEmpty() || value.equals("<empty>")) {
+                    bitbases = null;
+                } else {
+                    try {
+                        bitbases = Bitbases.load(Path.of(value));
+                        if (bitbases.isEmpty()) {
+                            out.println("info string No bitbases in " + value);
+                        }
+                    } catch (IOException e) {
+                        out.println("info string " + e.getMessage());
+                        return;
+                    }
+                }
+            }
+            case "bookfile" -> {
+                try {
+                    book = value.isEmpty() || value.equals("<empty>") ? null : OpeningBook.open(Path.of(value));
+                } catch (IOException e) {
+                    out.println("info string " + e.getMessage());
+                }
+                // The engine does not use the book, so it is kept
+                return;
+            }
+            default -> {
+                out.println("info string Unknown option: " + tokens[2]);
+                return;
+            }
+        }
+        if (engine != null) {
+            engine.close();
+            engine = null;
+        }
+    }
+
+    private void position(String[] tokens) {
+        int index = 1;
+        ChessGame position;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            position = Fen.parse(Fen.START_POSITION);
+            index = 2;
+        } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                fen.append(tokens[index]).append(' ');
+            }
+            try {
+                position = Fen.parse(fen.toString());
+            } catch (IllegalArgumentException e) {
+                out.println("info string " + e.getMessage());
+                return;
+            }
+        } else {
+            out.println("info string Expected startpos or fen");
+            return;
+        }
+
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            for (index++; index < tokens.length; index++) {
+                int move = notation.parseUci(position, tokens[index]);
+                if (move == Move.NONE) {
+                    out.println("info string Illegal move: " + tokens[index]);
+                    break;
+                }
+                position.doMove(move);
+            }
+        }
+        game = position;
+    }
+
+    private void go(String[] tokens) {
+        SearchLimits limits = SearchLimits.infinite();
+        long[] time = new long[2];
+        long[] increment = new long[2];
+        int movesToGo = 0;
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "perft" -> {
+                    perft(parseCount(argument(tokens, i + 1), 1));
+                    return;
+                }
+                case "depth" -> limits = limits.withDepth(parseCount(argument(tokens, ++i), 1));
+                case "nodes" -> limits = limits.withNodes(Long.parseLong(argument(tokens, ++i)));
+                case "movetime" -> limits = limits.withTime(Long.parseLong(argument(tokens, ++i)));
+                case "wtime" -> time[0] = Long.parseLong(argument(tokens, ++i));
+                case "btime" -> time[1] = Long.parseLong(argument(tokens, ++i));
+                case "winc" -> increment[0] = Long.parseLong(argument(tokens, ++i));
+                case "binc" -> increment[1] = Long.parseLong(argument(tokens, ++i));
+                case "movestogo" -> movesToGo = parseCount(argument(tokens, ++i), 0);
+                default -> {}
+            }
+        }
+        int bookMove = book != null ? book.pick(game, random) : Move.NONE;
+        if (bookMove != Move.NONE) {
+            out.println("bestmove " + Notation.toUci(bookMove));
+            return;
+        }
+
+        int side = game.getTeamTurn().ordinal();
+        if (time[side] > 0 && limits.timeMillis() == 0) {
+            // Spend an even share of the clock, keeping a little back for overhead
+            long share = time[side] / (movesToGo > 0 ? movesToGo + 1 : 30) + increment[side] * 3 / 4;
+            limits = limits.withTime(Math.max(1, Math.min(share, time[side] - 50)));
+        }
+
+        Engine searchEngine = engine();
+        // Here rather than on the search thread, so a "stop" that comes before it starts still counts
+        searchEngine.prepare();
+        ChessGame searchGame = game;
+        SearchLimits searchLimits = limits;
+        searchThread = new Thread(() -> {
+            SearchResult result = searchEngine.search(searchGame, searchLimits, this::printInfo);
+            out.println("bestmove " + (result.bestMove() == Move.NONE ? "0000" : Notation.toUci(result.bestMove())));
+            out.flush();
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    /**
+     * @return the value at an index of a command
+     * @throws NumberFormatException if the command ends before it
+     */
+    private static String argument(String[] tokens, int index) {
+        if (index >= tokens.length) {
+            throw new NumberFormatException("Missing value after " + tokens[tokens.length - 1]);
+        }
+        return tokens[index];
+    }
+
+    /**
+     * @return the number the token holds
+     * @throws NumberFormatException if it holds none, or one below the minimum
+     */
+    private static int parseCount(String token, int min) {
+        int count = Integer.parseInt(token);
+        if (count < min) {
+            throw new NumberFormatException("Expected at least " + min + ": " + token);
+        }
+        return count;
+    }
+
+    private void perft(int depth) {
+        long start = System.nanoTime();
+        long nodes = 0;
+        for (Map.Entry<String, Long> entry : new Perft(game).divide(depth).entrySet()) {
+            out.println(entry.getKey() + ": " + entry.getValue());
+            nodes += entry.getValue();
+        }
+        long nanos = System.nanoTime() - start;
+        out.println();
+        out.println("Nodes searched: " + nodes);
+        out.println("Nodes/second: " + (nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos));
+    }
+
+    private void bench(int depth) {
+        // One thread and a fresh table per position, so the node count is the same on every run
+        long nodes = 0;
+        long millis = 0;
+        try (Engine benchEngine = new Engine(Engine.DEFAULT_HASH_MEGABYTES, 1, evaluators())) {
+            for (Perft.SuitePosition position : Perft.SUITE) {
+                benchEngine.clear();
+                SearchResult result = benchEngine.search(Fen.parse(position.fen()), SearchLimits.depth(depth));
+                out.printf("%-10s %s  nodes %d%n", position.name(), Notation.toUci(result.bestMove()), result.nodes());
+                nodes += result.nodes();
+                millis += result.timeMillis();
+            }
+        }
+        out.println("===========================");
+        out.println("Total time (ms) : " + millis);
+        out.println("Nodes searched  : " + nodes);
+        out.println("Nodes/second    : " + nodes * 1000 / Math.max(1, millis));
+    }
+
+    private void printInfo(SearchResult result) {
+        StringBuilder info = new StringBuilder("info depth ").append(result.depth());
+        if (result.isMate()) {
+            info.append(" score mate ").append(result.getMateIn());
+        } else {
+            info.append(" score cp ").append(result.score());
+        }
+        info.append(" nodes ").append(result.nodes())
+            .append(" nps ").append(result.nodes() * 1000 / Math.max(1, result.timeMillis()))
+            .append(" time ").append(result.timeMillis())
+            .append(" hashfull ").append(engine().hashfull())
+            .append(" pv");
+        for (int move : result.principalVariation()) {
+            Notation.appendUci(info.append(' '), move);
+        }
+        out.println(info);
+        out.flush();
+    }
+
+    private Engine engine() {
+        if (engine == null) {
+            engine = new Engine(hashMegabytes, threads, evaluators());
+        }
+        return engine;
+    }
+
+    private Supplier<? extends Evaluator> evaluators() {
+        if (bitbases == null) {
+            return evaluators;
+        }
+        Supplier<? extends Evaluator> base = evaluators;
+        Bitbases known = bitbases;
+        return () -> new BitbaseEvaluator(known, base.get());
+    }
+
+    private void awaitSearch() {
+        if (searchThread != null) {
+            try {
+                searchThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            searchThread = null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package chess.engine.batch;
+
+import chess.engine.ClassicalEvaluator;
+
+/**
+ * Scores every position of a {@link PositionBatch} with the classical
+ * evaluation, giving the same scores as {@link ClassicalEvaluator#evaluate}
+ * position by position.
+ * <p>
+ * {@link #best()} uses SIMD lanes through the incubating Vector API when the
+ * JVM was started with {@code --add-modules jdk.incubator.vector}, and plain
+ * Java loops otherwise. Evaluators hold no state and may be shared.
+ */
+public interface BatchEvaluator {
+
+    /**
+     * @param scores receives the score of each position in centipawns, from the
+     *               point of view of the team to move, at the position's index
+     */
+    void evaluate(PositionBatch batch, int[] scores);
+
+    static BatchEvaluator best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (BatchEvaluator) Class.forName("chess.engine.batch.VectorBatchEvaluator")
+                    .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar evaluator
+            }
+        }
+        return scalar();
+    }
+
+    static BatchEvaluator scalar() {
+        return new ScalarBatchEvaluator();
+    }
+}
@@ -0,0 +1,26 @@
+package chess.engine.batch;
+
+import chess.engine.PieceSquareTables;
+
+/**
+ * The piece-square tables laid out by square, then piece index including
+ * {@link PositionBatch#EMPTY}, so a square's column of piece indices can be
+ * used directly as gather indices
+ */
+final class BatchTables {
+
+    static final int STRIDE = PositionBatch.EMPTY + 1;
+    static final int[] MIDGAME = new int[64 * STRIDE];
+    static final int[] ENDGAME = new int[64 * STRIDE];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            for (int pieceIndex = 0; pieceIndex < PositionBatch.EMPTY; pieceIndex++) {
+                MIDGAME[square * STRIDE + pieceIndex] = PieceSquareTables.midgame(pieceIndex, square);
+                ENDGAME[square * STRIDE + pieceIndex] = PieceSquareTables.endgame(pieceIndex, square);
+            }
+        }
+    }
+
+    private BatchTables() {}
+}
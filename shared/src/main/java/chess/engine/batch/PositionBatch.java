@@ -0,0 +1,104 @@
+package chess.engine.batch;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.engine.PieceSquareTables;
+
+/**
+ * Many positions packed in structure-of-arrays form for {@link BatchEvaluator}.
+ * Instead of one record per position, positions are grouped in blocks of
+ * {@link #BLOCK}, and a block holds one column per square with the piece index
+ * on that square in each of its positions. An evaluator can then process a
+ * square for a run of positions at once, one position per SIMD lane, while
+ * packing a position only touches its own block.
+ * <p>
+ * Packing reads the whole board, so a batch pays off when its positions are
+ * scored more than once or by more than one evaluator; see the benchmark in the
+ * tests for the numbers.
+ */
+public class PositionBatch {
+
+    /** The piece index stored for an empty square */
+    public static final int EMPTY = ChessPiece.INDEX_COUNT;
+
+    /** Positions per block, a multiple of the widest int lane count in use */
+    static final int BLOCK = 16;
+
+    private final int capacity;
+    /** The piece index on each square of each position, or {@link #EMPTY}, see {@link #offset} */
+    final int[] squares;
+    /** The game phase of each position, see {@link PieceSquareTables#phase(int)} */
+    final int[] phases;
+    /** 1 where White is to move, -1 where Black is */
+    final int[] signs;
+    private int size;
+
+    public PositionBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Batch capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        // Rounded up to whole blocks
+        squares = new int[64 * ((capacity + BLOCK - 1) / BLOCK * BLOCK)];
+        phases = new int[capacity];
+        signs = new int[capacity];
+    }
+
+    /**
+     * Packs a copy of the game's position
+     *
+     * @return the position's index in the batch
+     * @throws IllegalStateException if the batch is full
+     */
+    public int add(ChessGame game) {
+        if (size == capacity) {
+            throw new IllegalStateException("Batch is full");
+        }
+        ChessBoard board = game.getBoard();
+        int position = size++;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            squares[offset(square, position)] = EMPTY;
+        }
+        int square;
+        for (int pieceIndex = 0; pieceIndex < ChessPiece.INDEX_COUNT; pieceIndex++) {
+            for (long pieces = board.getBitboard(pieceIndex); pieces != 0; pieces = Bitboards.popFirst(pieces)) {
+                square = Bitboards.first(pieces);
+                squares[offset(square, position)] = pieceIndex;
+                phase += PieceSquareTables.phase(pieceIndex);
+            }
+        }
+        phases[position] = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        signs[position] = game.getTeamTurn() == ChessGame.TeamColor.WHITE ? 1 : -1;
+        return position;
+    }
+
+    /**
+     * @return where a square of a position is in {@link #squares}; the same
+     * square of the following positions in the block comes right after it
+     */
+    static int offset(int square, int position) {
+        return (position & -BLOCK) * 64 + square * BLOCK + (position & (BLOCK - 1));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Empties the batch so it can be packed again
+     */
+    public void clear() {
+        size = 0;
+    }
+}
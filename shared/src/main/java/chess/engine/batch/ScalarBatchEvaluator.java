@@ -0,0 +1,27 @@
+package chess.engine.batch;
+
+import chess.engine.PieceSquareTables;
+
+final class ScalarBatchEvaluator implements BatchEvaluator {
+
+    @Override
+    public void evaluate(PositionBatch batch, int[] scores) {
+        evaluate(batch, scores, 0);
+    }
+
+    /**
+     * Scores the positions from an index on
+     */
+    void evaluate(PositionBatch batch, int[] scores, int from) {
+        for (int position = from; position < batch.size(); position++) {
+            int midgame = 0;
+            int endgame = 0;
+            for (int square = 0; square < 64; square++) {
+                int pieceIndex = batch.squares[PositionBatch.offset(square, position)];
+                midgame += BatchTables.MIDGAME[square * BatchTables.STRIDE + pieceIndex];
+                endgame += BatchTables.ENDGAME[square * BatchTables.STRIDE + pieceIndex];
+            }
+            scores[position] = batch.signs[position] * PieceSquareTables.taper(midgame, endgame, batch.phases[position]);
+        }
+    }
+}
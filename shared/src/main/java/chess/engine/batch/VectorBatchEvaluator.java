@@ -0,0 +1,47 @@
+package chess.engine.batch;
+
+import chess.engine.PieceSquareTables;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scores a lane's worth of positions at a time, gathering each square's table
+ * entries by the piece indices in that square's column. Only loaded through
+ * {@link BatchEvaluator#best()} once the Vector API module is known to be
+ * present.
+ */
+final class VectorBatchEvaluator implements BatchEvaluator {
+
+    // A lane group must not straddle two blocks
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED.length() <= PositionBatch.BLOCK
+        ? IntVector.SPECIES_PREFERRED : IntVector.SPECIES_512;
+
+    private final ScalarBatchEvaluator scalar = new ScalarBatchEvaluator();
+
+    @Override
+    public void evaluate(PositionBatch batch, int[] scores) {
+        int bound = INTS.loopBound(batch.size());
+        int position = 0;
+        for (; position < bound; position += INTS.length()) {
+            IntVector midgame = IntVector.zero(INTS);
+            IntVector endgame = IntVector.zero(INTS);
+            int column = PositionBatch.offset(0, position);
+            for (int square = 0; square < 64; square++, column += PositionBatch.BLOCK) {
+                int table = square * BatchTables.STRIDE;
+                midgame = midgame.add(IntVector.fromArray(INTS, BatchTables.MIDGAME, table, batch.squares, column));
+                endgame = endgame.add(IntVector.fromArray(INTS, BatchTables.ENDGAME, table, batch.squares, column));
+            }
+            // Same blend as PieceSquareTables.taper; the phases are already capped
+            IntVector phase = IntVector.fromArray(INTS, batch.phases, position);
+            midgame.mul(phase)
+                .add(endgame.mul(phase.neg().add(PieceSquareTables.MAX_PHASE)))
+                .lanewise(VectorOperators.DIV, PieceSquareTables.MAX_PHASE)
+                .mul(IntVector.fromArray(INTS, batch.signs, position))
+                .intoArray(scores, position);
+        }
+        if (position < batch.size()) {
+            scalar.evaluate(batch, scores, position);
+        }
+    }
+}
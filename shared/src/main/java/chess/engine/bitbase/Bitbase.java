@@ -0,0 +1,121 @@
+package chess.engine.bitbase;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The win, draw or loss result of every position of an {@link Ending}, at two
+ * bits a position, memory-mapped from a file written by
+ * {@link BitbaseGenerator}. Probing reads a single byte of the mapping, so it
+ * takes no heap and a bitbase may be shared by any number of threads.
+ * <p>
+ * A bitbase file is little-endian: the int {@link #MAGIC}, the int
+ * {@link #VERSION}, the int ordinal of the ending and the int number of
+ * positions, then four positions a byte, lowest bits first, in
+ * {@link Ending#index} order.
+ */
+public final class Bitbase {
+
+    public static final int MAGIC = 0x42544942;
+    public static final int VERSION = 1;
+
+    /**
+     * A result with best play, for the side to move
+     */
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    static final int HEADER_SIZE = 16;
+    // Two-bit entries; an illegal position is never probed from a real game
+    static final byte ILLEGAL = 0;
+    static final byte WIN = 1;
+    static final byte DRAW = 2;
+    static final byte LOSS = 3;
+
+    private final Ending ending;
+    private final ByteBuffer entries;
+
+    private Bitbase(Ending ending, ByteBuffer entries) {
+        this.ending = ending;
+        this.entries = entries;
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not a bitbase
+     */
+    public static Bitbase load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_SIZE + Ending.POSITIONS / 4) {
+                throw new IOException("Not a bitbase file: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                .order(ByteOrder.LITTLE_ENDIAN);
+            int ordinal = buffer.getInt(8);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || ordinal < 0
+                || ordinal >= Ending.values().length || buffer.getInt(12) != Ending.POSITIONS) {
+                throw new IOException("Not a bitbase file: " + file);
+            }
+            return new Bitbase(Ending.values()[ordinal], buffer);
+        }
+    }
+
+    public Ending getEnding() {
+        return ending;
+    }
+
+    /**
+     * @return the result for the team to move, or null if the game is not in
+     * this bitbase's ending
+     */
+    public Outcome probe(ChessGame game) {
+        return probe(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * @return the result for the team to move, or null if the board is not in
+     * this bitbase's ending
+     */
+    public Outcome probe(ChessBoard board, ChessGame.TeamColor teamToMove) {
+        if (Bitboards.count(board.getOccupied()) != 3) {
+            return null;
+        }
+        for (ChessGame.TeamColor strong : ChessGame.TeamColor.values()) {
+            long piece = board.getBitboard(strong, ending.getPiece());
+            if (piece != 0) {
+                int strongKing = board.getKingSquare(strong);
+                int weakKing = board.getKingSquare(strong == ChessGame.TeamColor.WHITE
+                    ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+                if (strongKing == Bitboards.NO_SQUARE || weakKing == Bitboards.NO_SQUARE) {
+                    return null;
+                }
+                // Indexed with the strong side as White
+                int flip = strong == ChessGame.TeamColor.WHITE ? 0 : 56;
+                int index = Ending.index(teamToMove == strong, strongKing ^ flip, weakKing ^ flip,
+                    Bitboards.first(piece) ^ flip);
+                return switch (get(index)) {
+                    case WIN -> Outcome.WIN;
+                    case DRAW -> Outcome.DRAW;
+                    case LOSS -> Outcome.LOSS;
+                    default -> null;
+                };
+            }
+        }
+        return null;
+    }
+
+    int get(int index) {
+        return (entries.get(HEADER_SIZE + (index >>> 2)) >>> ((index & 3) * 2)) & 3;
+    }
+}
@@ -0,0 +1,49 @@
+package chess.engine.bitbase;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.engine.Evaluator;
+
+/**
+ * Corrects another evaluator in the endings the bitbases cover: a drawn
+ * position scores 0 however much material is on the board, and a won or lost
+ * one is pushed past any score without a bitbase result. The other evaluator's
+ * score is kept on top of that, so the search still steers towards mate, which
+ * it finds by searching as usual.
+ */
+public class BitbaseEvaluator implements Evaluator {
+
+    /** Twice any score the evaluators give, and with one added still below the search's mate scores */
+    public static final int KNOWN_WIN = 20_000;
+
+    private final Bitbases bitbases;
+    private final Evaluator evaluator;
+
+    public BitbaseEvaluator(Bitbases bitbases, Evaluator evaluator) {
+        this.bitbases = bitbases;
+        this.evaluator = evaluator;
+    }
+
+    @Override
+    public void attach(ChessBoard board) {
+        evaluator.attach(board);
+    }
+
+    @Override
+    public void detach() {
+        evaluator.detach();
+    }
+
+    @Override
+    public int evaluate(ChessGame game) {
+        Bitbase.Outcome outcome = bitbases.probe(game);
+        if (outcome == null) {
+            return evaluator.evaluate(game);
+        }
+        return switch (outcome) {
+            case DRAW -> 0;
+            case WIN -> KNOWN_WIN + evaluator.evaluate(game);
+            case LOSS -> -KNOWN_WIN + evaluator.evaluate(game);
+        };
+    }
+}
@@ -0,0 +1,229 @@
+package chess.engine.bitbase;
+
+import chess.Attacks;
+import chess.Bitboards;
+import chess.ChessGame;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Works out the bitbases by retrograde analysis and writes them to disk.
+ * <p>
+ * Every position of an ending starts out unknown, except that positions where
+ * the lone king is mated are losses and positions where it is stalemated or
+ * can take the undefended piece are draws. Then, until a pass changes nothing,
+ * a position with the strong side to move becomes a win once one of its moves
+ * reaches a loss, and a position with the lone king to move becomes a loss
+ * once all its moves reach wins. Whatever is still unknown at the end is a
+ * draw. A pawn promotes to a queen or a rook, whose endings are looked up in
+ * the bitbases generated before it.
+ * <p>
+ * Usage: {@code BitbaseGenerator [directory]}, by default {@code bitbases}.
+ */
+public final class BitbaseGenerator {
+
+    private static final byte UNKNOWN = 4;
+
+    private final Ending ending;
+    private final Map<Ending, byte[]> solved;
+    private final byte[] results = new byte[Ending.POSITIONS];
+
+    private BitbaseGenerator(Ending ending, Map<Ending, byte[]> solved) {
+        this.ending = ending;
+        this.solved = solved;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "bitbases");
+        Files.createDirectories(directory);
+        Map<Ending, byte[]> solved = generateAll();
+        for (Map.Entry<Ending, byte[]> entry : solved.entrySet()) {
+            Path file = directory.resolve(entry.getKey().fileName());
+            write(entry.getKey(), entry.getValue(), file);
+            System.out.println("Wrote " + file);
+        }
+    }
+
+    /**
+     * @return every ending's results, one {@link Bitbase} two-bit value a byte
+     */
+    public static Map<Ending, byte[]> generateAll() {
+        Map<Ending, byte[]> solved = new EnumMap<>(Ending.class);
+        for (Ending ending : Ending.values()) {
+            solved.put(ending, generate(ending, solved));
+        }
+        return solved;
+    }
+
+    /**
+     * @param solved the results of the endings a pawn promotes into
+     * @return the ending's results, one {@link Bitbase} two-bit value a byte
+     */
+    static byte[] generate(Ending ending, Map<Ending, byte[]> solved) {
+        return new BitbaseGenerator(ending, solved).generate();
+    }
+
+    /**
+     * Packs the results four to a byte behind the header {@link Bitbase#load} expects
+     */
+    public static void write(Ending ending, byte[] results, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Bitbase.HEADER_SIZE + Ending.POSITIONS / 4)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .putInt(Bitbase.MAGIC).putInt(Bitbase.VERSION).putInt(ending.ordinal()).putInt(Ending.POSITIONS);
+        for (int index = 0; index < Ending.POSITIONS; index += 4) {
+            buffer.put((byte) (results[index] | results[index + 1] << 2 | results[index + 2] << 4
+                | results[index + 3] << 6));
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(buffer.array());
+        }
+    }
+
+    private byte[] generate() {
+        for (int index = 0; index < Ending.POSITIONS; index++) {
+            results[index] = initial(index);
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int index = 0; index < Ending.POSITIONS; index++) {
+                if (results[index] == UNKNOWN) {
+                    byte result = Ending.strongToMove(index) ? strongResult(index) : weakResult(index);
+                    if (result != UNKNOWN) {
+                        results[index] = result;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        for (int index = 0; index < Ending.POSITIONS; index++) {
+            if (results[index] == UNKNOWN) {
+                results[index] = Bitbase.DRAW;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the result that does not depend on other positions, or
+     * {@link #UNKNOWN}
+     */
+    private byte initial(int index) {
+        int strongKing = Ending.strongKing(index);
+        int weakKing = Ending.weakKing(index);
+        int piece = Ending.piece(index);
+        if (strongKing == weakKing || strongKing == piece || weakKing == piece
+            || Bitboards.contains(Attacks.king(strongKing), weakKing)
+            || (ending == Ending.KPK && Bitboards.contains(Bitboards.RANK_1 | Bitboards.RANK_8, piece))) {
+            return Bitbase.ILLEGAL;
+        }
+        long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(piece);
+        boolean check = Bitboards.contains(pieceAttacks(piece, occupied), weakKing);
+        if (Ending.strongToMove(index)) {
+            // The lone king cannot have been left in check
+            return check ? Bitbase.ILLEGAL : UNKNOWN;
+        }
+
+        boolean canMove = false;
+        long withoutKing = occupied ^ Bitboards.bit(weakKing);
+        for (long targets = Attacks.king(weakKing) & ~Attacks.king(strongKing); targets != 0;
+             targets = Bitboards.popFirst(targets)) {
+            int target = Bitboards.first(targets);
+            if (target == piece) {
+                // Taking the piece leaves two bare kings
+                return Bitbase.DRAW;
+            }
+            if (!Bitboards.contains(pieceAttacks(piece, withoutKing), target)) {
+                canMove = true;
+            }
+        }
+        if (!canMove) {
+            return check ? Bitbase.LOSS : Bitbase.DRAW;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * @return a win if a move of the strong side reaches a loss, or {@link #UNKNOWN}
+     */
+    private byte strongResult(int index) {
+        int strongKing = Ending.strongKing(index);
+        int weakKing = Ending.weakKing(index);
+        int piece = Ending.piece(index);
+        long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(piece);
+
+        for (long targets = Attacks.king(strongKing) & ~Attacks.king(weakKing) & ~occupied; targets != 0;
+             targets = Bitboards.popFirst(targets)) {
+            if (results[Ending.index(false, Bitboards.first(targets), weakKing, piece)] == Bitbase.LOSS) {
+                return Bitbase.WIN;
+            }
+        }
+
+        if (ending == Ending.KPK) {
+            int push = piece + 8;
+            if (Bitboards.contains(occupied, push)) {
+                return UNKNOWN;
+            }
+            if (Bitboards.contains(Bitboards.RANK_8, push)) {
+                return promotionWins(strongKing, weakKing, push) ? Bitbase.WIN : UNKNOWN;
+            }
+            if (results[Ending.index(false, strongKing, weakKing, push)] == Bitbase.LOSS) {
+                return Bitbase.WIN;
+            }
+            int doublePush = push + 8;
+            if (Bitboards.contains(Bitboards.RANK_1 << 8, piece) && !Bitboards.contains(occupied, doublePush)
+                && results[Ending.index(false, strongKing, weakKing, doublePush)] == Bitbase.LOSS) {
+                return Bitbase.WIN;
+            }
+            return UNKNOWN;
+        }
+
+        for (long targets = pieceAttacks(piece, occupied) & ~occupied; targets != 0;
+             targets = Bitboards.popFirst(targets)) {
+            if (results[Ending.index(false, strongKing, weakKing, Bitboards.first(targets))] == Bitbase.LOSS) {
+                return Bitbase.WIN;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private boolean promotionWins(int strongKing, int weakKing, int square) {
+        int index = Ending.index(false, strongKing, weakKing, square);
+        return solved.get(Ending.KQK)[index] == Bitbase.LOSS || solved.get(Ending.KRK)[index] == Bitbase.LOSS;
+    }
+
+    /**
+     * @return a loss if every move of the lone king reaches a win, or {@link #UNKNOWN}
+     */
+    private byte weakResult(int index) {
+        int strongKing = Ending.strongKing(index);
+        int weakKing = Ending.weakKing(index);
+        int piece = Ending.piece(index);
+        long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(piece);
+        long withoutKing = occupied ^ Bitboards.bit(weakKing);
+
+        // Captures of the piece and positions without legal moves were settled up front
+        for (long targets = Attacks.king(weakKing) & ~Attacks.king(strongKing) & ~pieceAttacks(piece, withoutKing);
+             targets != 0; targets = Bitboards.popFirst(targets)) {
+            if (results[Ending.index(true, strongKing, Bitboards.first(targets), piece)] != Bitbase.WIN) {
+                return UNKNOWN;
+            }
+        }
+        return Bitbase.LOSS;
+    }
+
+    private long pieceAttacks(int square, long occupied) {
+        return switch (ending) {
+            case KQK -> Attacks.queen(square, occupied);
+            case KRK -> Attacks.rook(square, occupied);
+            case KPK -> Attacks.pawn(ChessGame.TeamColor.WHITE, square);
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package chess.engine.bitbase;
+
+import chess.Bitboards;
+import chess.ChessGame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The bitbases found in a directory, probed by whichever matches the material
+ * on the board
+ */
+public final class Bitbases {
+
+    private final List<Bitbase> bitbases;
+
+    private Bitbases(List<Bitbase> bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    /**
+     * Loads the bitbase of each {@link Ending} whose file is in the directory
+     *
+     * @throws IOException if a bitbase file is there but cannot be loaded
+     */
+    public static Bitbases load(Path directory) throws IOException {
+        List<Bitbase> bitbases = new ArrayList<>();
+        for (Ending ending : Ending.values()) {
+            Path file = directory.resolve(ending.fileName());
+            if (Files.exists(file)) {
+                bitbases.add(Bitbase.load(file));
+            }
+        }
+        return new Bitbases(List.copyOf(bitbases));
+    }
+
+    public boolean isEmpty() {
+        return bitbases.isEmpty();
+    }
+
+    /**
+     * @return the result for the team to move, or null if no loaded bitbase
+     * covers the position
+     */
+    public Bitbase.Outcome probe(ChessGame game) {
+        if (Bitboards.count(game.getBoard().getOccupied()) != 3) {
+            return null;
+        }
+        for (Bitbase bitbase : bitbases) {
+            Bitbase.Outcome outcome = bitbase.probe(game);
+            if (outcome != null) {
+                return outcome;
+            }
+        }
+        return null;
+    }
+}
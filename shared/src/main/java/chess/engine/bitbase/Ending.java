@@ -0,0 +1,59 @@
+package chess.engine.bitbase;
+
+import chess.ChessPiece;
+
+/**
+ * The endings covered by bitbases: a king and one piece against a lone king.
+ * Positions are indexed as if the side with the piece ("strong") were White;
+ * probing flips the board when it is Black.
+ * <p>
+ * The constants are in the order they must be generated in, since a pawn
+ * promotes into the endings before it.
+ */
+public enum Ending {
+
+    KQK(ChessPiece.PieceType.QUEEN),
+    KRK(ChessPiece.PieceType.ROOK),
+    KPK(ChessPiece.PieceType.PAWN);
+
+    /** Side to move x strong king x weak king x piece square */
+    public static final int POSITIONS = 2 * 64 * 64 * 64;
+
+    private final ChessPiece.PieceType piece;
+
+    Ending(ChessPiece.PieceType piece) {
+        this.piece = piece;
+    }
+
+    public ChessPiece.PieceType getPiece() {
+        return piece;
+    }
+
+    public String fileName() {
+        return name().toLowerCase() + ".bitbase";
+    }
+
+    /**
+     * @param strongToMove whether the side with the piece is to move
+     * @return the position's index in [0, {@link #POSITIONS})
+     */
+    static int index(boolean strongToMove, int strongKing, int weakKing, int piece) {
+        return (((strongToMove ? 0 : 1) * 64 + strongKing) * 64 + weakKing) * 64 + piece;
+    }
+
+    static boolean strongToMove(int index) {
+        return index < POSITIONS / 2;
+    }
+
+    static int strongKing(int index) {
+        return (index >>> 12) & 63;
+    }
+
+    static int weakKing(int index) {
+        return (index >>> 6) & 63;
+    }
+
+    static int piece(int index) {
+        return index & 63;
+    }
+}
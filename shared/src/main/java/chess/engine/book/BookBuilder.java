@@ -0,0 +1,155 @@
+package chess.engine.book;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Move;
+import chess.Notation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles an {@link OpeningBook} from games in Portable Game Notation.
+ * <p>
+ * Every move of the first plies of each game counts towards its position's
+ * entry: twice for the winner's moves, once for drawn or unfinished games, and
+ * not at all for the loser's, so the book favors moves that have scored well.
+ * <p>
+ * Usage: {@code BookBuilder [--plies N] book.bin games.pgn...}
+ */
+public class BookBuilder {
+
+    public static final int DEFAULT_MAX_PLIES = 20;
+
+    private record Entry(long key, int move, int weight) {}
+
+    private final int maxPlies;
+    // Position key -> Polyglot move -> weight
+    private final Map<Long, Map<Integer, Integer>> weights = new HashMap<>();
+    private final Notation notation = new Notation();
+    private int skippedMoves;
+
+    public BookBuilder() {
+        this(DEFAULT_MAX_PLIES);
+    }
+
+    /**
+     * @param maxPlies how deep into each game to take moves from
+     */
+    public BookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int maxPlies = DEFAULT_MAX_PLIES;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--plies")) {
+                maxPlies = Integer.parseInt(args[++i]);
+            } else {
+                files.add(args[i]);
+            }
+        }
+        if (files.size() < 2) {
+            System.out.println("Usage: BookBuilder [--plies N] book.bin games.pgn...");
+            return;
+        }
+
+        BookBuilder builder = new BookBuilder(maxPlies);
+        int games = 0;
+        for (String file : files.subList(1, files.size())) {
+            games += builder.addPgn(Path.of(file));
+        }
+        int entries = builder.write(Path.of(files.get(0)));
+        System.out.printf("%,d games, %,d entries, %,d unreadable moves%n", games, entries, builder.skippedMoves);
+    }
+
+    /**
+     * @return the number of games read
+     */
+    public int addPgn(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return addPgn(reader);
+        }
+    }
+
+    /**
+     * @return the number of games read
+     */
+    public int addPgn(Reader reader) throws IOException {
+        PgnReader pgn = new PgnReader(reader);
+        int games = 0;
+        for (PgnReader.PgnGame game = pgn.next(); game != null; game = pgn.next()) {
+            addGame(game);
+            games++;
+        }
+        return games;
+    }
+
+    /**
+     * Writes the book, sorted by position key, then by weight, best first, then by move
+     *
+     * @return the number of entries written
+     */
+    public int write(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        int maxWeight = 1;
+        for (Map.Entry<Long, Map<Integer, Integer>> position : weights.entrySet()) {
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                entries.add(new Entry(position.getKey(), move.getKey(), move.getValue()));
+                maxWeight = Math.max(maxWeight, move.getValue());
+            }
+        }
+        entries.sort(Comparator.<Entry>comparingLong(entry -> entry.key() ^ Long.MIN_VALUE)
+            .thenComparing(Comparator.comparingInt(Entry::weight).reversed())
+            .thenComparingInt(Entry::move));
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (Entry entry : entries) {
+                out.writeLong(entry.key());
+                out.writeShort(entry.move());
+                // Weights are 16 bits, so a big corpus is scaled down to fit
+                out.writeShort(maxWeight <= 0xFFFF ? entry.weight()
+                    : Math.max(1, (int) ((long) entry.weight() * 0xFFFF / maxWeight)));
+                out.writeInt(0);
+            }
+        }
+        return entries.size();
+    }
+
+    private void addGame(PgnReader.PgnGame pgnGame) {
+        ChessGame game;
+        try {
+            game = Fen.parse(pgnGame.tags().getOrDefault("FEN", Fen.START_POSITION));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        for (int ply = 0; ply < Math.min(maxPlies, pgnGame.moves().size()); ply++) {
+            int move = notation.parseSan(game, pgnGame.moves().get(ply));
+            if (move == Move.NONE) {
+                // Nothing after a move that cannot be read is in a known position
+                skippedMoves++;
+                return;
+            }
+            int weight = switch (pgnGame.result()) {
+                case "1-0" -> game.getTeamTurn() == ChessGame.TeamColor.WHITE ? 2 : 0;
+                case "0-1" -> game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 2 : 0;
+                default -> 1;
+            };
+            if (weight > 0) {
+                weights.computeIfAbsent(PolyglotKey.of(game), key -> new HashMap<>())
+                    .merge(OpeningBook.encodeMove(game.getBoard(), move), weight, Integer::sum);
+            }
+            game.doMove(move);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package chess.engine.book;
+
+/**
+ * A move found in an opening book
+ *
+ * @param move   the legal move, see {@link chess.Move}
+ * @param weight how often the move should be chosen relative to the others
+ *               of its position
+ */
+public record BookMove(int move, int weight) {}
@@ -0,0 +1,197 @@
+package chess.engine.book;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * An opening book in the Polyglot file format, memory-mapped and searched in
+ * place.
+ * <p>
+ * The file is a sequence of 16-byte big-endian entries sorted by position key:
+ * the 8-byte key, the 2-byte move, the 2-byte weight and 4 bytes of learning
+ * data, which are ignored. A move packs the destination square in bits 0-5, the
+ * origin square in bits 6-11 and the promotion piece in bits 12-14 (1 knight, 2
+ * bishop, 3 rook, 4 queen); castling is written as the king taking its own rook.
+ * <p>
+ * Positions are looked up by their {@link PolyglotKey}, so books compiled by
+ * other Polyglot tools work as well as those from {@link BookBuilder}.
+ * <p>
+ * Files are mapped in chunks, so books may be larger than 2 GB, and a lookup is
+ * a binary search that reads a few dozen entries straight from the mapping. A
+ * book holds no mutable state and may be shared between threads.
+ */
+public final class OpeningBook {
+
+    static final int ENTRY_SIZE = 16;
+    // Entries per mapped chunk, 1 GB worth
+    private static final int CHUNK_SHIFT = 26;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+    private static final ChessPiece.PieceType[] PROMOTIONS = {null, ChessPiece.PieceType.KNIGHT,
+        ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN};
+
+    private final ByteBuffer[] chunks;
+    private final long size;
+
+    private OpeningBook(ByteBuffer[] chunks, long size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not a whole number of entries
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes % ENTRY_SIZE != 0) {
+                throw new IOException("Not an opening book file: " + file);
+            }
+            long size = bytes / ENTRY_SIZE;
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = ((long) i << CHUNK_SHIFT) * ENTRY_SIZE;
+                // Mapped buffers are big-endian, as the format is, and outlive the channel
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(bytes - start,
+                    (CHUNK_MASK + 1) * ENTRY_SIZE));
+            }
+            return new OpeningBook(chunks, size);
+        }
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the book's legal moves for the position, best weighted first
+     */
+    public List<BookMove> lookup(ChessGame game) {
+        List<BookMove> found = new ArrayList<>();
+        long key = PolyglotKey.of(game);
+        long entry = lowerBound(key);
+        if (entry == size || key(entry) != key) {
+            return found;
+        }
+        MoveList legal = new MoveList();
+        game.generateValidMoves(game.getTeamTurn(), legal);
+        for (; entry < size && key(entry) == key; entry++) {
+            int move = decodeMove(game.getBoard(), chunk(entry).getShort(offset(entry) + 8) & 0xFFFF);
+            int weight = chunk(entry).getShort(offset(entry) + 10) & 0xFFFF;
+            if (weight > 0 && legal.contains(move)) {
+                found.add(new BookMove(move, weight));
+            }
+        }
+        found.sort((a, b) -> Integer.compare(b.weight(), a.weight()));
+        return found;
+    }
+
+    /**
+     * Chooses one of the book's moves at random, each as likely as its weight
+     *
+     * @return the move, or {@link Move#NONE} if the position is not in the book
+     */
+    public int pick(ChessGame game, Random random) {
+        List<BookMove> moves = lookup(game);
+        int total = 0;
+        for (BookMove move : moves) {
+            total += move.weight();
+        }
+        if (total == 0) {
+            return Move.NONE;
+        }
+        int target = random.nextInt(total);
+        for (BookMove move : moves) {
+            target -= move.weight();
+            if (target < 0) {
+                return move.move();
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * @return the first entry whose key is not below the given one, comparing
+     * keys unsigned as the file is sorted
+     */
+    private long lowerBound(long key) {
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(key(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long key(long entry) {
+        return chunk(entry).getLong(offset(entry));
+    }
+
+    private ByteBuffer chunk(long entry) {
+        return chunks[(int) (entry >>> CHUNK_SHIFT)];
+    }
+
+    private static int offset(long entry) {
+        return (int) (entry & CHUNK_MASK) * ENTRY_SIZE;
+    }
+
+    /**
+     * @return the Polyglot form of a move made on the board
+     */
+    static int encodeMove(ChessBoard board, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int pieceIndex = board.getPieceIndex(from);
+        if (pieceIndex % 6 == ChessPiece.PieceType.KING.ordinal() && Math.abs(to - from) == 2) {
+            // Castling is the king taking its own rook
+            to = to > from ? from + 3 : from - 4;
+        }
+        int promotion = 0;
+        if (Move.isPromotion(move)) {
+            promotion = switch (Move.promotion(move)) {
+                case KNIGHT -> 1;
+                case BISHOP -> 2;
+                case ROOK -> 3;
+                default -> 4;
+            };
+        }
+        return promotion << 12 | from << 6 | to;
+    }
+
+    /**
+     * @return the move a Polyglot move stands for on the board
+     */
+    static int decodeMove(ChessBoard board, int bookMove) {
+        int from = (bookMove >>> 6) & 63;
+        int to = bookMove & 63;
+        int promotion = (bookMove >>> 12) & 7;
+        int mover = board.getPieceIndex(from);
+        if (mover != ChessPiece.NO_PIECE && mover % 6 == ChessPiece.PieceType.KING.ordinal()
+            && board.getPieceIndex(to) == mover + ChessPiece.PieceType.ROOK.ordinal()) {
+            to = to > from ? from + 2 : from - 2;
+        }
+        if (promotion > 0 && promotion < PROMOTIONS.length) {
+            return Move.encode(from, to, PROMOTIONS[promotion]);
+        }
+        return Move.encode(from, to);
+    }
+}
@@ -0,0 +1,150 @@
+package chess.engine.book;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits Portable Game Notation text into games: their tag pairs, the moves of
+ * the main line as written, and the result. Comments, variations, move numbers
+ * and annotation glyphs are skipped.
+ */
+final class PgnReader {
+
+    /**
+     * @param moves  the main line in standard algebraic notation, such as "Nf3"
+     * @param result "1-0", "0-1", "1/2-1/2" or "*"
+     */
+    record PgnGame(Map<String, String> tags, List<String> moves, String result) {}
+
+    private final PushbackReader in;
+
+    PgnReader(Reader in) {
+        this.in = new PushbackReader(in);
+    }
+
+    /**
+     * @return the next game, or null at the end of the input
+     */
+    PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        boolean started = false;
+        int c;
+        while ((c = skipWhitespace()) >= 0) {
+            switch (c) {
+                case '[' -> {
+                    if (!moves.isEmpty()) {
+                        // A new game began without the last one giving a result
+                        in.unread(c);
+                        return new PgnGame(tags, moves, "*");
+                    }
+                    readTag(tags);
+                    started = true;
+                }
+                case '{' -> skipPast('}');
+                case ';' -> skipPast('\n');
+                case '(' -> skipVariation();
+                default -> {
+                    String token = readToken(c);
+                    started = true;
+                    if (token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*")) {
+                        return new PgnGame(tags, moves, token);
+                    }
+                    String move = stripMoveNumber(token);
+                    if (!move.isEmpty() && !move.startsWith("$")) {
+                        moves.add(move);
+                    }
+                }
+            }
+        }
+        return started ? new PgnGame(tags, moves, "*") : null;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c >= 0 && Character.isWhitespace(c));
+        return c;
+    }
+
+    private void skipPast(char end) throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c >= 0 && c != end);
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = in.read()) >= 0) {
+            switch (c) {
+                case '(' -> depth++;
+                case ')' -> depth--;
+                case '{' -> skipPast('}');
+                case ';' -> skipPast('\n');
+                default -> {}
+            }
+        }
+    }
+
+    private void readTag(Map<String, String> tags) throws IOException {
+        StringBuilder name = new StringBuilder();
+        int c = skipWhitespace();
+        for (; c >= 0 && !Character.isWhitespace(c) && c != '"' && c != ']'; c = in.read()) {
+            name.append((char) c);
+        }
+        while (c >= 0 && c != '"' && c != ']') {
+            c = in.read();
+        }
+        StringBuilder value = new StringBuilder();
+        if (c == '"') {
+            for (c = in.read(); c >= 0 && c != '"'; c = in.read()) {
+                if (c == '\\') {
+                    c = in.read();
+                }
+                value.append((char) c);
+            }
+            skipPast(']');
+        }
+        tags.put(name.toString(), value.toString());
+    }
+
+    private String readToken(int first) throws IOException {
+        StringBuilder token = new StringBuilder().append((char) first);
+        int c;
+        while ((c = in.read()) >= 0 && !Character.isWhitespace(c) && "{}();[".indexOf(c) < 0) {
+            token.append((char) c);
+        }
+        if (c >= 0) {
+            in.unread(c);
+        }
+        return token.toString();
+    }
+
+    /**
+     * @return the token without a leading move number such as "12." or "12..."
+     */
+    private static String stripMoveNumber(String token) {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == token.length()) {
+            return "";
+        }
+        if (i == 0 || token.charAt(i) != '.') {
+            return token;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return token.substring(i);
+    }
+}
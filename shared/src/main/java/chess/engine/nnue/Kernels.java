@@ -0,0 +1,36 @@
+package chess.engine.nnue;
+
+/**
+ * The arithmetic the network spends its time in, with a plain Java version and
+ * a SIMD version on the incubating Vector API. The SIMD version is only used
+ * when the JVM was started with {@code --add-modules jdk.incubator.vector}.
+ */
+interface Kernels {
+
+    /**
+     * Adds {@code weights[offset, offset + accumulator.length)} to the accumulator
+     */
+    void add(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * Subtracts {@code weights[offset, offset + accumulator.length)} from the accumulator
+     */
+    void subtract(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * @return the dot product of {@code input[0, length)} and
+     * {@code weights[offset, offset + length)}
+     */
+    int dot(int[] input, int[] weights, int offset, int length);
+
+    static Kernels best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (Kernels) Class.forName("chess.engine.nnue.VectorKernels").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar kernels
+            }
+        }
+        return new ScalarKernels();
+    }
+}
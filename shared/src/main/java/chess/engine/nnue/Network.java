@@ -0,0 +1,209 @@
+package chess.engine.nnue;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The weights of an efficiently updatable neural network ("NNUE") with HalfKP
+ * inputs: a feature for every (own king square, non-king piece, square)
+ * combination, seen from each side's point of view. The layers are
+ * <pre>
+ *   2 x (40960 -> N)  feature transformer, one accumulator per side
+ *   2N -> 32 -> 32 -> 1  with clipped ReLU between layers
+ * </pre>
+ * Only the accumulators depend on the inputs directly, and a move changes only
+ * a few features, so {@link NnueEvaluator} updates them move by move instead
+ * of recomputing them.
+ * <p>
+ * A network file is little-endian: the int {@link #MAGIC}, the int
+ * {@link #VERSION} and the int hidden size N, then the feature biases (N
+ * int16), the feature weights (40960 x N int16, one row of N per feature), and
+ * for each dense layer its int16 weights (one row per output) followed by its
+ * int32 biases.
+ */
+public final class Network {
+
+    public static final int MAGIC = 0x45554E4E;
+    public static final int VERSION = 1;
+
+    /** 64 king squares x 10 non-king pieces x 64 squares */
+    public static final int FEATURES = 64 * 10 * 64;
+    public static final int HIDDEN_SIZE = 32;
+
+    // Activations are clipped to [0, 127]; dense layer sums are scaled back down by 2^6
+    static final int ACTIVATION_MAX = 127;
+    static final int WEIGHT_SHIFT = 6;
+    static final int OUTPUT_DIVISOR = 16;
+
+    final int accumulatorSize;
+    final short[] featureBiases;
+    final short[] featureWeights;
+    // Dense weights are widened to int on load so the products do not overflow
+    final int[] hidden1Weights;
+    final int[] hidden1Biases;
+    final int[] hidden2Weights;
+    final int[] hidden2Biases;
+    final int[] outputWeights;
+    final int outputBias;
+
+    Network(int accumulatorSize, short[] featureBiases, short[] featureWeights, int[] hidden1Weights,
+            int[] hidden1Biases, int[] hidden2Weights, int[] hidden2Biases, int[] outputWeights, int outputBias) {
+        this.accumulatorSize = accumulatorSize;
+        this.featureBiases = featureBiases;
+        this.featureWeights = featureWeights;
+        this.hidden1Weights = hidden1Weights;
+        this.hidden1Biases = hidden1Biases;
+        this.hidden2Weights = hidden2Weights;
+        this.hidden2Biases = hidden2Biases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not a network file
+     */
+    public static Network load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                .order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a network file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported network version " + version + ": " + file);
+            }
+            int size = buffer.getInt();
+            long expected = 12 + 2L * size + 2L * FEATURES * size
+                + 2L * HIDDEN_SIZE * 2 * size + 4L * HIDDEN_SIZE
+                + 2L * HIDDEN_SIZE * HIDDEN_SIZE + 4L * HIDDEN_SIZE
+                + 2L * HIDDEN_SIZE + 4;
+            if (size <= 0 || channel.size() != expected) {
+                throw new IOException("Network file has the wrong size for " + size + " hidden units: " + file);
+            }
+
+            short[] featureBiases = readShorts(buffer, size);
+            short[] featureWeights = readShorts(buffer, FEATURES * size);
+            int[] hidden1Weights = widen(readShorts(buffer, HIDDEN_SIZE * 2 * size));
+            int[] hidden1Biases = readInts(buffer, HIDDEN_SIZE);
+            int[] hidden2Weights = widen(readShorts(buffer, HIDDEN_SIZE * HIDDEN_SIZE));
+            int[] hidden2Biases = readInts(buffer, HIDDEN_SIZE);
+            int[] outputWeights = widen(readShorts(buffer, HIDDEN_SIZE));
+            int outputBias = buffer.getInt();
+            return new Network(size, featureBiases, featureWeights, hidden1Weights, hidden1Biases,
+                hidden2Weights, hidden2Biases, outputWeights, outputBias);
+        }
+    }
+
+    /**
+     * Writes the network in the format {@link #load(Path)} reads
+     */
+    public void save(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putInt(VERSION).putInt(accumulatorSize);
+            out.write(header.array());
+            writeShorts(out, featureBiases);
+            writeShorts(out, featureWeights);
+            writeShorts(out, narrow(hidden1Weights));
+            writeInts(out, hidden1Biases);
+            writeShorts(out, narrow(hidden2Weights));
+            writeInts(out, hidden2Biases);
+            writeShorts(out, narrow(outputWeights));
+            writeInts(out, new int[]{outputBias});
+        }
+    }
+
+    public int getAccumulatorSize() {
+        return accumulatorSize;
+    }
+
+    /**
+     * @param perspective the side whose accumulator the feature belongs to
+     * @param kingSquare  that side's king square
+     * @param pieceIndex  a non-king piece, see {@link ChessPiece#index()}
+     * @return the feature's row in the feature weights
+     */
+    static int featureIndex(ChessGame.TeamColor perspective, int kingSquare, int pieceIndex, int square) {
+        // Black sees the board upside down, so both sides share the weights
+        int flip = perspective == ChessGame.TeamColor.WHITE ? 0 : 56;
+        int own = pieceIndex / 6 == perspective.ordinal() ? 0 : 1;
+        // Piece types past the king, QUEEN..PAWN, become 0..4
+        int piece = (pieceIndex % 6 - 1) * 2 + own;
+        return ((kingSquare ^ flip) * 10 + piece) * 64 + (square ^ flip);
+    }
+
+    /**
+     * Runs the dense layers
+     *
+     * @param input the clipped accumulators, the side to move's first
+     * @return the score in centipawns for the side to move
+     */
+    int forward(Kernels kernels, int[] input, int[] hidden1, int[] hidden2) {
+        int inputSize = 2 * accumulatorSize;
+        for (int i = 0; i < HIDDEN_SIZE; i++) {
+            int sum = hidden1Biases[i] + kernels.dot(input, hidden1Weights, i * inputSize, inputSize);
+            hidden1[i] = clip(sum >> WEIGHT_SHIFT);
+        }
+        for (int i = 0; i < HIDDEN_SIZE; i++) {
+            int sum = hidden2Biases[i] + kernels.dot(hidden1, hidden2Weights, i * HIDDEN_SIZE, HIDDEN_SIZE);
+            hidden2[i] = clip(sum >> WEIGHT_SHIFT);
+        }
+        return (outputBias + kernels.dot(hidden2, outputWeights, 0, HIDDEN_SIZE)) / OUTPUT_DIVISOR;
+    }
+
+    static int clip(int value) {
+        return Math.max(0, Math.min(ACTIVATION_MAX, value));
+    }
+
+    private static short[] readShorts(ByteBuffer buffer, int count) {
+        short[] values = new short[count];
+        buffer.asShortBuffer().get(values);
+        buffer.position(buffer.position() + 2 * count);
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * count);
+        return values;
+    }
+
+    private static int[] widen(short[] values) {
+        int[] widened = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            widened[i] = values[i];
+        }
+        return widened;
+    }
+
+    private static short[] narrow(int[] values) {
+        short[] narrowed = new short[values.length];
+        for (int i = 0; i < values.length; i++) {
+            narrowed[i] = (short) values[i];
+        }
+        return narrowed;
+    }
+
+    private static void writeShorts(OutputStream out, short[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * values.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asShortBuffer().put(values);
+        out.write(buffer.array());
+    }
+
+    private static void writeInts(OutputStream out, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * values.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(values);
+        out.write(buffer.array());
+    }
+}
@@ -0,0 +1,154 @@
+package chess.engine.nnue;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.engine.Evaluator;
+
+/**
+ * Evaluates positions with a {@link Network}.
+ * <p>
+ * While attached to a board the evaluator keeps one accumulator per side, the
+ * feature transformer's output, up to date as pieces are put on and taken off
+ * the board: a move adds and subtracts a couple of weight rows instead of
+ * summing the rows of every piece. A side's features all depend on where its
+ * king stands, so a king move only marks that side's accumulator stale and it
+ * is rebuilt from the board at the next evaluation. Any other board is
+ * evaluated from scratch.
+ * <p>
+ * An evaluator holds per-search state, so each search thread needs its own;
+ * the network can be shared.
+ */
+public class NnueEvaluator implements Evaluator, ChessBoard.PieceListener {
+
+    /** Network output is clamped well inside the range the search uses for mate scores */
+    public static final int MAX_SCORE = 10_000;
+
+    private static final ChessGame.TeamColor[] PERSPECTIVES = ChessGame.TeamColor.values();
+
+    private final Network network;
+    private final Kernels kernels;
+    private final short[][] accumulators;
+    private final int[] kingSquares = new int[2];
+    private final boolean[] stale = new boolean[2];
+    private final short[][] scratch;
+    private final int[] input;
+    private final int[] hidden1 = new int[Network.HIDDEN_SIZE];
+    private final int[] hidden2 = new int[Network.HIDDEN_SIZE];
+    private ChessBoard board;
+
+    public NnueEvaluator(Network network) {
+        this(network, Kernels.best());
+    }
+
+    NnueEvaluator(Network network, Kernels kernels) {
+        this.network = network;
+        this.kernels = kernels;
+        accumulators = new short[2][network.accumulatorSize];
+        scratch = new short[2][network.accumulatorSize];
+        input = new int[2 * network.accumulatorSize];
+    }
+
+    @Override
+    public void attach(ChessBoard board) {
+        detach();
+        this.board = board;
+        // The listener replays the board's pieces, which are not needed; build from scratch instead
+        stale[0] = true;
+        stale[1] = true;
+        board.addPieceListener(this);
+    }
+
+    @Override
+    public void detach() {
+        if (board != null) {
+            board.removePieceListener(this);
+            board = null;
+        }
+    }
+
+    @Override
+    public void pieceAdded(int square, int pieceIndex) {
+        if (pieceIndex % 6 == ChessPiece.PieceType.KING.ordinal()) {
+            stale[pieceIndex / 6] = true;
+            return;
+        }
+        for (ChessGame.TeamColor perspective : PERSPECTIVES) {
+            int side = perspective.ordinal();
+            if (!stale[side]) {
+                kernels.add(accumulators[side], network.featureWeights,
+                    row(perspective, kingSquares[side], pieceIndex, square));
+            }
+        }
+    }
+
+    @Override
+    public void pieceRemoved(int square, int pieceIndex) {
+        if (pieceIndex % 6 == ChessPiece.PieceType.KING.ordinal()) {
+            stale[pieceIndex / 6] = true;
+            return;
+        }
+        for (ChessGame.TeamColor perspective : PERSPECTIVES) {
+            int side = perspective.ordinal();
+            if (!stale[side]) {
+                kernels.subtract(accumulators[side], network.featureWeights,
+                    row(perspective, kingSquares[side], pieceIndex, square));
+            }
+        }
+    }
+
+    @Override
+    public int evaluate(ChessGame game) {
+        ChessBoard evaluated = game.getBoard();
+        short[][] sides;
+        if (evaluated == board) {
+            for (ChessGame.TeamColor perspective : PERSPECTIVES) {
+                if (stale[perspective.ordinal()]) {
+                    refresh(evaluated, perspective, accumulators[perspective.ordinal()]);
+                    kingSquares[perspective.ordinal()] = evaluated.getKingSquare(perspective);
+                    // Without a king there is nothing to update from, so rebuild every time
+                    stale[perspective.ordinal()] = kingSquares[perspective.ordinal()] == Bitboards.NO_SQUARE;
+                }
+            }
+            sides = accumulators;
+        } else {
+            for (ChessGame.TeamColor perspective : PERSPECTIVES) {
+                refresh(evaluated, perspective, scratch[perspective.ordinal()]);
+            }
+            sides = scratch;
+        }
+
+        int toMove = game.getTeamTurn().ordinal();
+        int size = network.accumulatorSize;
+        for (int i = 0; i < size; i++) {
+            input[i] = Network.clip(sides[toMove][i]);
+            input[size + i] = Network.clip(sides[1 - toMove][i]);
+        }
+        int score = network.forward(kernels, input, hidden1, hidden2);
+        return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    /**
+     * Sums the biases and the weight rows of every non-king piece on the board
+     */
+    private void refresh(ChessBoard board, ChessGame.TeamColor perspective, short[] accumulator) {
+        System.arraycopy(network.featureBiases, 0, accumulator, 0, accumulator.length);
+        int king = board.getKingSquare(perspective);
+        for (int pieceIndex = 0; pieceIndex < ChessPiece.INDEX_COUNT; pieceIndex++) {
+            if (pieceIndex % 6 == ChessPiece.PieceType.KING.ordinal()) {
+                continue;
+            }
+            for (long pieces = board.getBitboard(pieceIndex); pieces != 0; pieces = Bitboards.popFirst(pieces)) {
+                kernels.add(accumulator, network.featureWeights,
+                    row(perspective, king, pieceIndex, Bitboards.first(pieces)));
+            }
+        }
+    }
+
+    private int row(ChessGame.TeamColor perspective, int king, int pieceIndex, int square) {
+        // A missing king is treated as standing on a1 so kingless test positions still evaluate
+        int kingSquare = king == Bitboards.NO_SQUARE ? 0 : king;
+        return Network.featureIndex(perspective, kingSquare, pieceIndex, square) * network.accumulatorSize;
+    }
+}
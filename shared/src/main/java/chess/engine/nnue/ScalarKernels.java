@@ -0,0 +1,27 @@
+package chess.engine.nnue;
+
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset) {
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset) {
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public int dot(int[] input, int[] weights, int offset, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += input[i] * weights[offset + i];
+        }
+        return sum;
+    }
+}
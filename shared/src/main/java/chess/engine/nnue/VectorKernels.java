@@ -0,0 +1,59 @@
+package chess.engine.nnue;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels on the widest SIMD registers the CPU has. Only loaded through
+ * {@link Kernels#best()} once the Vector API module is known to be present.
+ */
+final class VectorKernels implements Kernels {
+
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset) {
+        int bound = SHORTS.loopBound(accumulator.length);
+        int i = 0;
+        for (; i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                .add(ShortVector.fromArray(SHORTS, weights, offset + i))
+                .intoArray(accumulator, i);
+        }
+        for (; i < accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset) {
+        int bound = SHORTS.loopBound(accumulator.length);
+        int i = 0;
+        for (; i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                .sub(ShortVector.fromArray(SHORTS, weights, offset + i))
+                .intoArray(accumulator, i);
+        }
+        for (; i < accumulator.length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public int dot(int[] input, int[] weights, int offset, int length) {
+        int bound = INTS.loopBound(length);
+        IntVector sums = IntVector.zero(INTS);
+        int i = 0;
+        for (; i < bound; i += INTS.length()) {
+            sums = IntVector.fromArray(INTS, input, i).mul(IntVector.fromArray(INTS, weights, offset + i)).add(sums);
+        }
+        int sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += input[i] * weights[offset + i];
+        }
+        return sum;
+    }
+}
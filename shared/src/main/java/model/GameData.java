@@ -9,4 +9,16 @@ public record GameData(
     String gameName,
     ChessGame game
 ) {
+
+  /**
+   * The username in a seat taken by a computer player. Nobody can register it.
+   */
+  public static final String BOT_USERNAME = "Computer";
+
+  /**
+   * @return the username in the seat of the team to move
+   */
+  public String usernameToMove() {
+    return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? whiteUsername : blackUsername;
+  }
 }
@@ -0,0 +1,150 @@
+package chess;
+
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static chess.TestUtilities.move;
+
+public class DrawTests {
+
+    private static final String[] KNIGHT_SHUFFLE = {"g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8"};
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        Assertions.assertTrue(game.isRepetition());
+        Assertions.assertFalse(game.isThreefoldRepetition());
+        Assertions.assertEquals(GameStatus.State.NORMAL, game.getGameStatus().state());
+
+        shuffleKnights(game);
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertEquals(GameStatus.State.THREEFOLD_REPETITION, game.getGameStatus().state());
+        Assertions.assertTrue(game.getGameStatus().isGameOver());
+
+        game.undoMove();
+        Assertions.assertTrue(game.isRepetition());
+        Assertions.assertFalse(game.isThreefoldRepetition());
+        Assertions.assertEquals(GameStatus.State.NORMAL, game.getGameStatus().state());
+    }
+
+    @Test
+    @DisplayName("Pawn Move Resets Halfmove Clock")
+    public void pawnMoveResetsClock() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+        makeMove(game, "e2", "e4");
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        makeMove(game, "e7", "e5");
+        Assertions.assertFalse(game.isRepetition());
+        shuffleKnights(game);
+        Assertions.assertTrue(game.isRepetition());
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+        Assertions.assertEquals(6, game.getFullmoveNumber());
+    }
+
+    @Test
+    @DisplayName("History Survives Serialization")
+    public void historySurvivesSerialization() throws InvalidMoveException {
+        Gson gson = new Gson();
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        for (int i = 0; i < KNIGHT_SHUFFLE.length; i += 2) {
+            game = gson.fromJson(gson.toJson(game), ChessGame.class);
+            makeMove(game, KNIGHT_SHUFFLE[i], KNIGHT_SHUFFLE[i + 1]);
+        }
+        Assertions.assertEquals(GameStatus.State.THREEFOLD_REPETITION, game.getGameStatus().state());
+
+        // Only the positions since the last capture or pawn move are written out
+        makeMove(game, "e2", "e4");
+        JsonObject json = gson.toJsonTree(game).getAsJsonObject();
+        Assertions.assertFalse(json.has("positionHistory"));
+        Assertions.assertEquals(1, json.getAsJsonArray("recentPositions").size());
+        makeMove(game, "g8", "f6");
+        Assertions.assertEquals(2, gson.toJsonTree(game).getAsJsonObject().getAsJsonArray("recentPositions").size());
+    }
+
+    @Test
+    @DisplayName("Fifty-Move Rule")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/4P3/R3K3 w - - 99 80");
+        makeMove(game, "a1", "a2");
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertEquals(GameStatus.State.FIFTY_MOVE_RULE, game.getGameStatus().state());
+
+        game.undoMove();
+        Assertions.assertEquals(99, game.getHalfmoveClock());
+        makeMove(game, "e2", "e4");
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(GameStatus.State.NORMAL, game.getGameStatus().state());
+
+        // Mate on the last move still counts
+        game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 99 80");
+        makeMove(game, "a1", "a8");
+        Assertions.assertEquals(GameStatus.State.CHECKMATE, game.getGameStatus().state());
+    }
+
+    @Test
+    @DisplayName("Insufficient Material")
+    public void insufficientMaterial() throws InvalidMoveException {
+        for (String fen : new String[]{"k7/8/8/8/8/8/8/K7 w - - 0 1", "k7/8/8/8/8/8/8/KB6 w - - 0 1",
+            "k7/8/8/8/8/8/8/KN6 b - - 0 1", "kb6/8/8/8/8/8/8/K1B5 w - - 0 1", "k7/8/8/8/8/8/B7/KB6 w - - 0 1"}) {
+            Assertions.assertTrue(Fen.parse(fen).getBoard().hasInsufficientMaterial(), fen);
+            Assertions.assertEquals(GameStatus.State.INSUFFICIENT_MATERIAL, Fen.parse(fen).getGameStatus().state(), fen);
+        }
+        for (String fen : new String[]{"k7/8/8/8/8/8/8/KP6 w - - 0 1", "k7/8/8/8/8/8/8/KNN5 w - - 0 1",
+            "kb6/8/8/8/8/8/8/KB6 w - - 0 1", "kn6/8/8/8/8/8/8/KB6 w - - 0 1", "k7/8/8/8/8/8/8/KR6 w - - 0 1"}) {
+            Assertions.assertFalse(Fen.parse(fen).getBoard().hasInsufficientMaterial(), fen);
+        }
+
+        ChessGame game = Fen.parse("k7/8/8/8/8/8/1r6/K1B5 w - - 0 1");
+        makeMove(game, "a1", "b2");
+        Assertions.assertEquals(GameStatus.State.INSUFFICIENT_MATERIAL, game.getGameStatus().state());
+    }
+
+    @Test
+    @DisplayName("FEN Move Counters")
+    public void fenMoveCounters() throws InvalidMoveException {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        makeMove(game, "g1", "f3");
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1", Fen.format(game));
+        makeMove(game, "g8", "f6");
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/8/5N2/PPPPPPPP/RNBQKB1R w KQkq - 2 2", Fen.format(game));
+        game.undoMove();
+        game.undoMove();
+        Assertions.assertEquals(Fen.START_POSITION, Fen.format(game));
+
+        Assertions.assertEquals(23, Fen.parse("4k3/8/8/8/8/8/8/4K3 b - - 7 23").getFullmoveNumber());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 b - - x 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 b - - 0 0"));
+    }
+
+    @Test
+    @DisplayName("Search Scores Dead Positions As Draws")
+    public void searchScoresDraws() {
+        try (Engine engine = new Engine(1)) {
+            Assertions.assertEquals(0, engine.search(Fen.parse("k7/8/8/8/8/8/8/KB6 w - - 0 1"),
+                SearchLimits.depth(4)).score());
+            // Winning the rook leaves a bishop that cannot mate on its own
+            Assertions.assertEquals(0, engine.search(Fen.parse("k7/8/8/8/8/8/1r6/K1B5 w - - 0 1"),
+                SearchLimits.depth(4)).score());
+        }
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        for (int i = 0; i < KNIGHT_SHUFFLE.length; i += 2) {
+            makeMove(game, KNIGHT_SHUFFLE[i], KNIGHT_SHUFFLE[i + 1]);
+        }
+    }
+
+    private static void makeMove(ChessGame game, String from, String to) throws InvalidMoveException {
+        game.makeMove(Move.toChessMove(move(from, to)));
+    }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static chess.TestUtilities.move;
+
+public class JsonTests {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    @DisplayName("Load Game Saved With The Grid Board")
+    public void loadLegacyGame() throws InvalidMoveException {
+        // 1. e4 e5 2. Ke2, as the server stored it when the board was a grid of pieces
+        String fen = "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 0 1";
+        JsonObject json = new JsonObject();
+        json.addProperty("teamTurn", "BLACK");
+        json.add("board", legacyBoard(Fen.parse(fen).getBoard()));
+        json.addProperty("isGameOver", false);
+
+        ChessGame game = gson.fromJson(gson.toJson(json), ChessGame.class);
+        Assertions.assertEquals(fen, Fen.format(game));
+        Assertions.assertEquals(GameStatus.State.NORMAL, game.getGameStatus().state());
+        game.makeMove(Move.toChessMove(move("e8", "e7")));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Round Trip Keeps The Position")
+    public void roundTrip() {
+        String fen = "rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b Kq e3 0 3";
+        ChessGame game = gson.fromJson(gson.toJson(Fen.parse(fen)), ChessGame.class);
+        Assertions.assertEquals(fen, Fen.format(game));
+    }
+
+    /**
+     * @return the board in the form a grid of pieces serialized to: rows 1 to 8
+     * of columns 1 to 8, with null for an empty square
+     */
+    private static JsonObject legacyBoard(ChessBoard board) {
+        JsonArray rows = new JsonArray();
+        for (int row = 1; row <= 8; row++) {
+            JsonArray columns = new JsonArray();
+            for (int column = 1; column <= 8; column++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, column));
+                if (piece == null) {
+                    columns.add(JsonNull.INSTANCE);
+                } else {
+                    JsonObject json = new JsonObject();
+                    json.addProperty("teamColor", piece.getTeamColor().name());
+                    json.addProperty("type", piece.getPieceType().name());
+                    json.addProperty("hasMoved", false);
+                    columns.add(json);
+                }
+            }
+            rows.add(columns);
+        }
+        JsonObject json = new JsonObject();
+        json.add("board", rows);
+        return json;
+    }
+}
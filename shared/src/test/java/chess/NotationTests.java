@@ -0,0 +1,106 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static chess.TestUtilities.*;
+
+public class NotationTests {
+
+    private final Notation notation = new Notation();
+
+    @Test
+    @DisplayName("Parse UCI")
+    public void parseUci() {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        Assertions.assertEquals(move("e2", "e4"), notation.parseUci(game, "e2e4"));
+        Assertions.assertEquals(Move.NONE, notation.parseUci(game, "e2e5"));
+        Assertions.assertEquals(Move.NONE, notation.parseUci(game, "e7e5"));
+        Assertions.assertEquals(Move.NONE, notation.parseUci(game, "e2"));
+        Assertions.assertEquals(Move.NONE, notation.parseUci(game, "i2i4"));
+
+        Assertions.assertEquals(move("e1", "g1"), notation.parseUci(Fen.parse(KIWIPETE), "e1g1"));
+        ChessGame promotion = Fen.parse("8/4P3/8/8/8/8/8/k6K w - - 0 1");
+        Assertions.assertEquals(Move.encode(Fen.parseSquare("e7"), Fen.parseSquare("e8"), ChessPiece.PieceType.KNIGHT),
+            notation.parseUci(promotion, "e7e8n"));
+        Assertions.assertEquals(Move.NONE, notation.parseUci(promotion, "e7e8"));
+        Assertions.assertEquals(Move.NONE, notation.parseUci(promotion, "e7e8k"));
+    }
+
+    @Test
+    @DisplayName("Parse SAN")
+    public void parseSan() {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        Assertions.assertEquals(move("g1", "f3"), notation.parseSan(game, "Nf3"));
+        Assertions.assertEquals(move("e2", "e4"), notation.parseSan(game, "e4!?"));
+        Assertions.assertEquals(Move.NONE, notation.parseSan(game, "Nd2"));
+        Assertions.assertEquals(Move.NONE, notation.parseSan(game, "O-O"));
+
+        ChessGame kiwipete = Fen.parse(KIWIPETE);
+        Assertions.assertEquals(move("e1", "g1"), notation.parseSan(kiwipete, "O-O"));
+        Assertions.assertEquals(move("e1", "c1"), notation.parseSan(kiwipete, "0-0-0+"));
+        Assertions.assertEquals(move("e5", "f7"), notation.parseSan(kiwipete, "Nxf7"));
+        Assertions.assertEquals(move("e5", "f7"), notation.parseSan(kiwipete, "Ne5-f7"));
+        Assertions.assertEquals(move("d5", "e6"), notation.parseSan(kiwipete, "dxe6"));
+        Assertions.assertEquals(move("g2", "h3"), notation.parseSan(kiwipete, "gxh3"));
+
+        ChessGame rooks = Fen.parse("R6R/8/8/8/8/5k2/8/R3K3 w - - 0 1");
+        Assertions.assertEquals(Move.NONE, notation.parseSan(rooks, "Rd8"));
+        Assertions.assertEquals(move("h8", "d8"), notation.parseSan(rooks, "Rhd8"));
+        Assertions.assertEquals(Move.NONE, notation.parseSan(rooks, "Ra4"));
+        Assertions.assertEquals(move("a1", "a4"), notation.parseSan(rooks, "R1a4"));
+        Assertions.assertEquals(move("a8", "a4"), notation.parseSan(rooks, "Ra8a4"));
+
+        ChessGame promotion = Fen.parse("3r3k/4P3/8/8/8/8/8/K7 w - - 0 1");
+        Assertions.assertEquals(Move.encode(Fen.parseSquare("e7"), Fen.parseSquare("d8"), ChessPiece.PieceType.QUEEN),
+            notation.parseSan(promotion, "exd8=Q+"));
+        Assertions.assertEquals(Move.encode(Fen.parseSquare("e7"), Fen.parseSquare("e8"), ChessPiece.PieceType.ROOK),
+            notation.parseSan(promotion, "e8R"));
+        Assertions.assertEquals(Move.NONE, notation.parseSan(promotion, "e8"));
+    }
+
+    @Test
+    @DisplayName("Format SAN")
+    public void formatSan() {
+        ChessGame kiwipete = Fen.parse(KIWIPETE);
+        Assertions.assertEquals("O-O", notation.toSan(kiwipete, move("e1", "g1")));
+        Assertions.assertEquals("O-O-O", notation.toSan(kiwipete, move("e1", "c1")));
+        Assertions.assertEquals("Nxf7", notation.toSan(kiwipete, move("e5", "f7")));
+        Assertions.assertEquals("Nb1", notation.toSan(kiwipete, move("c3", "b1")));
+        Assertions.assertEquals("gxh3", notation.toSan(kiwipete, move("g2", "h3")));
+        Assertions.assertEquals("a3", notation.toSan(kiwipete, move("a2", "a3")));
+        Assertions.assertEquals(KIWIPETE, Fen.format(kiwipete), "Formatting changed the position");
+
+        ChessGame rooks = Fen.parse("R6R/8/8/8/8/5k2/8/R3K3 w - - 0 1");
+        Assertions.assertEquals("Rhd8", notation.toSan(rooks, move("h8", "d8")));
+        Assertions.assertEquals("R1a4", notation.toSan(rooks, move("a1", "a4")));
+        Assertions.assertEquals("Rh3+", notation.toSan(rooks, move("h8", "h3")));
+
+        Assertions.assertEquals("Ra8#", notation.toSan(Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), move("a1", "a8")));
+        Assertions.assertEquals("exd6", notation.toSan(Fen.parse("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1"), move("e5", "d6")));
+        Assertions.assertEquals("exd8=Q+", notation.toSan(Fen.parse("3r3k/4P3/8/8/8/8/8/K7 w - - 0 1"),
+            Move.encode(Fen.parseSquare("e7"), Fen.parseSquare("d8"), ChessPiece.PieceType.QUEEN)));
+    }
+
+    @Test
+    @DisplayName("Round Trip Every Legal Move")
+    public void roundTrip() {
+        StringBuilder text = new StringBuilder();
+        MoveList moves = new MoveList();
+        for (Perft.SuitePosition position : Perft.SUITE) {
+            ChessGame game = Fen.parse(position.fen());
+            moves.clear();
+            game.generateValidMoves(game.getTeamTurn(), moves);
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                text.setLength(0);
+                Assertions.assertEquals(move, notation.parseSan(game, notation.appendSan(text, game, move)),
+                    position.name() + " " + text);
+                text.setLength(0);
+                Assertions.assertEquals(move, notation.parse(game, Notation.appendUci(text, move)),
+                    position.name() + " " + text);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Start Position Node Counts")
+    public void startPosition() {
+        Perft.SuitePosition position = Perft.SUITE.get(0);
+        for (int depth = 1; depth <= 4; depth++) {
+            Assertions.assertEquals(position.nodes()[depth - 1], new Perft(Fen.parse(position.fen())).count(depth),
+                "Wrong node count at depth " + depth);
+        }
+    }
+
+    @Test
+    @DisplayName("Suite Node Counts")
+    public void suite() {
+        // The other positions exercise castling, en passant, promotions and pins
+        for (Perft.SuitePosition position : Perft.SUITE) {
+            for (int depth = 1; depth <= 3; depth++) {
+                Assertions.assertEquals(position.nodes()[depth - 1],
+                    new Perft(Fen.parse(position.fen())).count(depth),
+                    "Wrong node count for " + position.name() + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Castling And En Passant Are Undone")
+    public void castlingAndEnPassantUndone() {
+        ChessGame game = Fen.parse(Perft.SUITE.get(1).fen());
+        new Perft(game).count(3);
+        Assertions.assertEquals(Perft.SUITE.get(1).fen(), Fen.format(game));
+        Assertions.assertEquals(Fen.parse(Perft.SUITE.get(1).fen()).positionKey(), game.positionKey());
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Count")
+    public void divideSumsToCount() {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        long total = new Perft(game).divide(3).values().stream().mapToLong(Long::longValue).sum();
+        Assertions.assertEquals(8_902, total);
+        Assertions.assertEquals(Fen.START_POSITION, Fen.format(game), "Divide did not restore the position");
+    }
+
+    @Test
+    @DisplayName("Depth Zero And Negative Depths")
+    public void depthZero() {
+        Perft perft = new Perft(Fen.parse(Fen.START_POSITION));
+        Assertions.assertEquals(1, perft.count(0));
+        Assertions.assertTrue(perft.divide(0).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> perft.count(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> perft.divide(-1));
+    }
+
+    @Test
+    @DisplayName("Parallel Count Matches")
+    public void parallelCount() {
+        Assertions.assertEquals(8_902, Perft.countParallel(Fen.parse(Fen.START_POSITION), 3, 2));
+    }
+
+    @Test
+    @DisplayName("FEN Round Trip")
+    public void fenRoundTrip() {
+        for (Perft.SuitePosition position : Perft.SUITE) {
+            Assertions.assertEquals(position.fen(), Fen.format(Fen.parse(position.fen())));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static chess.TestUtilities.*;
+
+public class PositionTests {
+
+    @Test
+    @DisplayName("Snapshot Does Not Follow The Game")
+    public void snapshotIsImmutable() {
+        ChessGame game = Fen.parse(KIWIPETE);
+        Position position = game.snapshot();
+        game.doMove(move("e1", "g1"));
+        game.doMove(move("b4", "c3"));
+
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, position.getTeamTurn());
+        Assertions.assertEquals(ChessGame.ALL_CASTLING, position.getCastlingRights());
+        Assertions.assertEquals(ChessPiece.index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+            position.getPieceIndex(Fen.parseSquare("e1")));
+        Assertions.assertEquals(Fen.parse(KIWIPETE).positionKey(), position.positionKey());
+        Assertions.assertEquals(KIWIPETE, Fen.format(position.toGame()));
+        Assertions.assertEquals(Fen.parse(KIWIPETE).snapshot(), position);
+        Assertions.assertEquals(Fen.parse(KIWIPETE).snapshot().hashCode(), position.hashCode());
+        Assertions.assertNotEquals(game.snapshot(), position);
+    }
+
+    @Test
+    @DisplayName("Copy Is Independent")
+    public void copyIsIndependent() {
+        ChessGame game = Fen.parse(KIWIPETE);
+        game.doMove(move("e1", "c1"));
+        ChessGame copy = game.copy();
+        Assertions.assertEquals(Fen.format(game), Fen.format(copy));
+        Assertions.assertEquals(game.positionKey(), copy.positionKey());
+        // The copy starts with nothing to undo
+        Assertions.assertThrows(IllegalStateException.class, copy::undoMove);
+
+        copy.doMove(move("e8", "g8"));
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE, game.getCastlingRights());
+        game.undoMove();
+        Assertions.assertEquals(KIWIPETE, Fen.format(game));
+        Assertions.assertEquals(0, copy.getCastlingRights());
+    }
+
+    @Test
+    @DisplayName("Copy Keeps Repetition History")
+    public void copyKeepsHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        String[] shuffle = {"g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8"};
+        for (int round = 0; round < 2; round++) {
+            game = game.copy();
+            for (int i = 0; i < shuffle.length; i += 2) {
+                game.makeMove(Move.toChessMove(move(shuffle[i], shuffle[i + 1])));
+            }
+        }
+        Assertions.assertEquals(GameStatus.State.THREEFOLD_REPETITION, game.copy().getGameStatus().state());
+
+        game.setGameOver(true);
+        Assertions.assertTrue(game.copy().isGameOver());
+    }
+}
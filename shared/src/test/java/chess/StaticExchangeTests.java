@@ -0,0 +1,40 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StaticExchangeTests {
+
+    @Test
+    @DisplayName("Undefended Pawn")
+    public void undefendedPawn() {
+        ChessBoard board = Fen.parse("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1").getBoard();
+        Assertions.assertEquals(100, board.staticExchange(Fen.parseSquare("e1"), Fen.parseSquare("e5")));
+    }
+
+    @Test
+    @DisplayName("Defended Pawn With X-Rays")
+    public void defendedPawnWithXrays() {
+        // Nxe5 Nxe5 Rxe5 Bxe5 Qxe5 Qxe5 trades a knight and rook for a bishop and pawn
+        ChessBoard board = Fen.parse("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1").getBoard();
+        Assertions.assertEquals(100 - 320, board.staticExchange(Fen.parseSquare("d3"), Fen.parseSquare("e5")));
+    }
+
+    @Test
+    @DisplayName("Defender Stops When Recapturing Loses")
+    public void defenderStops() {
+        // After Rxd5 Black would lose the queen by recapturing with it
+        ChessBoard board = Fen.parse("3qk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1").getBoard();
+        Assertions.assertEquals(100, board.staticExchange(Fen.parseSquare("d2"), Fen.parseSquare("d5")));
+    }
+
+    @Test
+    @DisplayName("Hanging Pieces")
+    public void hangingPieces() {
+        // The knight on c3 is attacked by a pawn, the bishop on g5 by nothing
+        ChessBoard board = Fen.parse("4k3/8/8/6B1/3p4/2N5/8/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(Bitboards.bit(Fen.parseSquare("c3")), board.getHangingPieces(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(Bitboards.EMPTY, board.getHangingPieces(ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,18 @@
+package chess;
+
+/**
+ * Positions and move helpers shared by the tests
+ */
+public final class TestUtilities {
+
+    public static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private TestUtilities() {}
+
+    /**
+     * @return the int-encoded move between two squares written like "e2"
+     */
+    public static int move(String from, String to) {
+        return Move.encode(Fen.parseSquare(from), Fen.parseSquare(to));
+    }
+}
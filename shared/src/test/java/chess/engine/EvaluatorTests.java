@@ -0,0 +1,43 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class EvaluatorTests {
+
+    @Test
+    @DisplayName("Start Position Is Even")
+    public void startPositionIsEven() {
+        Assertions.assertEquals(0, new ClassicalEvaluator().evaluate(Fen.parse(Fen.START_POSITION)));
+    }
+
+    @Test
+    @DisplayName("Incremental Score Matches Full Scan")
+    public void incrementalMatchesScan() {
+        ChessGame game = Fen.parse(Perft.SUITE.get(1).fen());
+        ClassicalEvaluator evaluator = new ClassicalEvaluator();
+        evaluator.attach(game.getBoard());
+        Random random = new Random(14);
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < 400; ply++) {
+            moves.clear();
+            game.generateValidMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty() || ply % 7 == 6) {
+                game.undoMove();
+            } else {
+                game.doMove(moves.get(random.nextInt(moves.size())));
+            }
+            int expected = ClassicalEvaluator.evaluateBoard(game.getBoard());
+            int sign = game.getTeamTurn() == ChessGame.TeamColor.WHITE ? 1 : -1;
+            Assertions.assertEquals(sign * expected, evaluator.evaluate(game), "Diverged after ply " + ply);
+        }
+        evaluator.detach();
+    }
+}
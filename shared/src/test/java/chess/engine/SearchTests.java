@@ -0,0 +1,68 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Move;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        SearchResult result = new Engine(1).search(Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"),
+            SearchLimits.depth(4));
+        Assertions.assertEquals(Move.encode(Fen.parseSquare("a1"), Fen.parseSquare("a8")), result.bestMove());
+        Assertions.assertEquals(1, result.getMateIn());
+    }
+
+    @Test
+    @DisplayName("Takes Hanging Queen")
+    public void takesHangingQueen() {
+        SearchResult result = new Engine(1).search(Fen.parse("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1"),
+            SearchLimits.depth(3));
+        Assertions.assertEquals(Move.encode(Fen.parseSquare("d1"), Fen.parseSquare("d5")), result.bestMove());
+        Assertions.assertTrue(result.score() > 0);
+    }
+
+    @Test
+    @DisplayName("No Moves When Mated")
+    public void noMovesWhenMated() {
+        SearchResult result = new Engine(1).search(Fen.parse("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1"),
+            SearchLimits.depth(3));
+        Assertions.assertEquals(Move.NONE, result.bestMove());
+        Assertions.assertNull(result.getBestMove());
+    }
+
+    @Test
+    @DisplayName("Search Restores Game")
+    public void restoresGame() {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        long key = game.positionKey();
+        new Engine(1).search(game, SearchLimits.depth(4));
+        Assertions.assertEquals(Fen.START_POSITION, Fen.format(game));
+        Assertions.assertEquals(key, game.positionKey());
+    }
+
+    @Test
+    @DisplayName("Parallel Search Finds Mate")
+    public void parallelSearch() {
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        try (Engine engine = new Engine(1, 3)) {
+            SearchResult result = engine.search(game, SearchLimits.depth(5));
+            Assertions.assertEquals(Move.encode(Fen.parseSquare("a1"), Fen.parseSquare("a8")), result.bestMove());
+            Assertions.assertEquals(1, result.getMateIn());
+        }
+        Assertions.assertEquals("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", Fen.format(game));
+    }
+
+    @Test
+    @DisplayName("Node Limit Stops Search")
+    public void nodeLimit() {
+        SearchResult result = new Engine(1).search(Fen.parse(Fen.START_POSITION), SearchLimits.nodes(20_000));
+        Assertions.assertNotEquals(Move.NONE, result.bestMove());
+        Assertions.assertTrue(result.nodes() <= 20_000 + 1_000, "Searched " + result.nodes() + " nodes");
+    }
+}
@@ -0,0 +1,76 @@
+package chess.engine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Store Then Probe")
+    public void storeThenProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        table.store(key, 777, -123, 9, TranspositionTable.LOWER);
+
+        long data = table.probe(key);
+        Assertions.assertEquals(777, TranspositionTable.move(data));
+        Assertions.assertEquals(-123, TranspositionTable.score(data));
+        Assertions.assertEquals(9, TranspositionTable.depth(data));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        Assertions.assertEquals(0, table.probe(key + 1), "Another key must miss");
+
+        table.clear();
+        Assertions.assertEquals(0, table.probe(key), "Cleared table must miss");
+    }
+
+    @Test
+    @DisplayName("Old Entries Are Replaced First")
+    public void agingReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucketStride = table.size() / 64;
+        long[] keys = new long[5];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 42 + i * bucketStride;
+        }
+        // Fill one bucket with deep entries from an earlier search
+        for (int i = 0; i < 4; i++) {
+            table.store(keys[i], 1, 0, 20 + i, TranspositionTable.EXACT);
+        }
+        table.newSearch();
+        table.newSearch();
+        table.newSearch();
+        table.store(keys[4], 2, 0, 1, TranspositionTable.EXACT);
+
+        Assertions.assertNotEquals(0, table.probe(keys[4]), "New entry must be stored");
+        Assertions.assertEquals(0, table.probe(keys[0]), "Shallowest old entry must be replaced");
+        Assertions.assertNotEquals(0, table.probe(keys[3]));
+    }
+
+    @Test
+    @DisplayName("Concurrent Stores Never Return Another Key's Data")
+    public void concurrentStores() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        Thread[] threads = new Thread[4];
+        boolean[] failed = new boolean[1];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    // Few distinct keys, so threads keep overwriting each other's entries
+                    long key = (i % 64) * 0x9E3779B97F4A7C15L;
+                    table.store(key, (int) (key & 0x7FFF), thread, 1, TranspositionTable.EXACT);
+                    long data = table.probe(key);
+                    if (data != 0 && TranspositionTable.move(data) != (int) (key & 0x7FFF)) {
+                        failed[0] = true;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertFalse(failed[0]);
+    }
+}
@@ -0,0 +1,70 @@
+package chess.engine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+public class UciTests {
+
+    @Test
+    @DisplayName("Handshake And Search")
+    public void handshakeAndSearch() throws IOException {
+        String output = run("uci", "isready", "position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", "go depth 3", "quit");
+        Assertions.assertTrue(output.contains("uciok"));
+        Assertions.assertTrue(output.contains("readyok"));
+        Assertions.assertTrue(output.contains("score mate 1"));
+        Assertions.assertTrue(output.contains("bestmove a1a8"), output);
+    }
+
+    @Test
+    @DisplayName("Perft After Moves")
+    public void perftAfterMoves() throws IOException {
+        String output = run("position startpos moves e2e4 e7e5", "go perft 2", "d", "quit");
+        Assertions.assertTrue(output.contains("Nodes searched: 835"), output);
+        Assertions.assertTrue(output.contains("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq"), output);
+    }
+
+    @Test
+    @DisplayName("Illegal Move Is Reported")
+    public void illegalMove() throws IOException {
+        String output = run("position startpos moves e2e5", "quit");
+        Assertions.assertTrue(output.contains("info string Illegal move: e2e5"), output);
+    }
+
+    @Test
+    @DisplayName("Malformed Commands Are Reported")
+    public void malformedCommands() throws IOException {
+        String output = run("go perft", "go perft 0", "go depth x", "bench -1", "setoption name Threads value 0",
+            "setoption name Hash value many", "go depth", "position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1",
+            "go depth 3", "quit");
+        for (String command : new String[]{"go perft", "go perft 0", "go depth x", "bench -1", "setoption name Threads value 0",
+            "setoption name Hash value many", "go depth"}) {
+            Assertions.assertTrue(output.contains("info string Bad command: " + command + System.lineSeparator()), output);
+        }
+        Assertions.assertTrue(output.contains("bestmove a1a8"), output);
+    }
+
+    @Test
+    @DisplayName("Immediate Stop Ends An Infinite Search")
+    public void immediateStop() {
+        String output = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> run("position startpos", "go infinite", "stop", "quit"));
+        Assertions.assertTrue(output.contains("bestmove "), output);
+        Assertions.assertFalse(output.contains("bestmove 0000"), output);
+    }
+
+    private static String run(String... commands) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String input = String.join("\n", commands) + "\n";
+        new Uci(new PrintStream(out, true, StandardCharsets.UTF_8))
+            .run(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
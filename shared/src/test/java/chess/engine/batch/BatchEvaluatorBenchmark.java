@@ -0,0 +1,92 @@
+package chess.engine.batch;
+
+import chess.ChessGame;
+import chess.engine.ClassicalEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scoring positions one by one with {@link ClassicalEvaluator} against
+ * scoring them as a {@link PositionBatch}, with and without packing the batch
+ * first. Scores are reported per position.
+ * <p>
+ * Run with
+ * <pre>
+ *   mvn -pl shared test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath chess.engine.batch.BatchEvaluatorBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(BatchEvaluatorBenchmark.POSITIONS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BatchEvaluatorBenchmark {
+
+    static final int POSITIONS = 4096;
+
+    private List<ChessGame> games;
+    private PositionBatch batch;
+    private int[] scores;
+    private final ClassicalEvaluator evaluator = new ClassicalEvaluator();
+    private final BatchEvaluator scalar = BatchEvaluator.scalar();
+    private final BatchEvaluator vector = BatchEvaluator.best();
+
+    @Setup
+    public void setUp() {
+        games = BatchEvaluatorTests.randomPositions(new Random(19), POSITIONS);
+        batch = new PositionBatch(POSITIONS);
+        games.forEach(batch::add);
+        scores = new int[POSITIONS];
+    }
+
+    @Benchmark
+    public void perPosition(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(evaluator.evaluate(game));
+        }
+    }
+
+    @Benchmark
+    public int[] batchScalar() {
+        scalar.evaluate(batch, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public int[] batchVector() {
+        vector.evaluate(batch, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public int[] packAndBatchVector() {
+        batch.clear();
+        games.forEach(batch::add);
+        vector.evaluate(batch, scores);
+        return scores;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BatchEvaluatorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package chess.engine.batch;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.Perft;
+import chess.engine.ClassicalEvaluator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class BatchEvaluatorTests {
+
+    @Test
+    @DisplayName("Batch Scores Match Per Position Scores")
+    public void batchMatchesPerPosition() {
+        // Not a multiple of any lane count, so the vector evaluator's tail runs too
+        List<ChessGame> games = randomPositions(new Random(19), 101);
+        PositionBatch batch = new PositionBatch(games.size());
+        for (ChessGame game : games) {
+            batch.add(game);
+        }
+        ClassicalEvaluator evaluator = new ClassicalEvaluator();
+        for (BatchEvaluator batchEvaluator : new BatchEvaluator[]{BatchEvaluator.scalar(), new VectorBatchEvaluator()}) {
+            int[] scores = new int[batch.size()];
+            batchEvaluator.evaluate(batch, scores);
+            for (int i = 0; i < games.size(); i++) {
+                Assertions.assertEquals(evaluator.evaluate(games.get(i)), scores[i],
+                    batchEvaluator.getClass().getSimpleName() + " differs on " + Fen.format(games.get(i)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Full Batch")
+    public void fullBatch() {
+        PositionBatch batch = new PositionBatch(2);
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        Assertions.assertEquals(0, batch.add(game));
+        Assertions.assertEquals(1, batch.add(game));
+        Assertions.assertTrue(batch.isFull());
+        Assertions.assertThrows(IllegalStateException.class, () -> batch.add(game));
+
+        batch.clear();
+        Assertions.assertEquals(0, batch.size());
+        Assertions.assertEquals(0, batch.add(Fen.parse(Perft.SUITE.get(2).fen())));
+        int[] scores = new int[1];
+        BatchEvaluator.best().evaluate(batch, scores);
+        Assertions.assertEquals(new ClassicalEvaluator().evaluate(Fen.parse(Perft.SUITE.get(2).fen())), scores[0]);
+    }
+
+    /**
+     * @return positions reached by random games from the perft suite positions
+     */
+    static List<ChessGame> randomPositions(Random random, int count) {
+        List<ChessGame> games = new ArrayList<>(count);
+        MoveList moves = new MoveList();
+        while (games.size() < count) {
+            ChessGame game = Fen.parse(Perft.SUITE.get(random.nextInt(Perft.SUITE.size())).fen());
+            int plies = random.nextInt(40);
+            for (int ply = 0; ply < plies; ply++) {
+                moves.clear();
+                game.generateValidMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.doMove(moves.get(random.nextInt(moves.size())));
+            }
+            games.add(game.copy());
+        }
+        return games;
+    }
+}
@@ -0,0 +1,114 @@
+package chess.engine.bitbase;
+
+import chess.Fen;
+import chess.engine.ClassicalEvaluator;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class BitbaseTests {
+
+    private static Path directory;
+    private static Map<Ending, byte[]> results;
+    private static Bitbases bitbases;
+
+    @BeforeAll
+    public static void generate() throws IOException {
+        directory = Files.createTempDirectory("bitbases");
+        results = BitbaseGenerator.generateAll();
+        for (Map.Entry<Ending, byte[]> entry : results.entrySet()) {
+            BitbaseGenerator.write(entry.getKey(), entry.getValue(), directory.resolve(entry.getKey().fileName()));
+        }
+        bitbases = Bitbases.load(directory);
+    }
+
+    @AfterAll
+    public static void deleteFiles() throws IOException {
+        for (Ending ending : Ending.values()) {
+            Files.deleteIfExists(directory.resolve(ending.fileName()));
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    @DisplayName("Queen And Rook Always Win On The Move")
+    public void queenAndRookWin() {
+        for (Ending ending : new Ending[]{Ending.KQK, Ending.KRK}) {
+            byte[] endingResults = results.get(ending);
+            for (int index = 0; index < Ending.POSITIONS / 2; index++) {
+                if (endingResults[index] != Bitbase.ILLEGAL) {
+                    Assertions.assertEquals(Bitbase.WIN, endingResults[index], ending + " position " + index);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Known Positions")
+    public void knownPositions() {
+        assertOutcome(Bitbase.Outcome.LOSS, "R5k1/8/6K1/8/8/8/8/8 b - - 0 1");
+        assertOutcome(Bitbase.Outcome.DRAW, "k7/8/1Q6/8/8/8/8/7K b - - 0 1");
+        assertOutcome(Bitbase.Outcome.WIN, "4k3/8/4K3/4P3/8/8/8/8 w - - 0 1");
+        assertOutcome(Bitbase.Outcome.LOSS, "4k3/8/4K3/4P3/8/8/8/8 b - - 0 1");
+        assertOutcome(Bitbase.Outcome.DRAW, "4k3/4P3/4K3/8/8/8/8/8 b - - 0 1");
+        assertOutcome(Bitbase.Outcome.DRAW, "k7/8/K7/P7/8/8/8/8 w - - 0 1");
+    }
+
+    @Test
+    @DisplayName("Black Pieces Are Flipped")
+    public void blackPieces() {
+        assertOutcome(Bitbase.Outcome.WIN, "8/8/8/8/4p3/4k3/8/4K3 b - - 0 1");
+        assertOutcome(Bitbase.Outcome.LOSS, "8/8/8/8/4p3/4k3/8/4K3 w - - 0 1");
+        // The lone king takes the undefended queen
+        assertOutcome(Bitbase.Outcome.DRAW, "8/8/8/8/8/8/1q6/K6k w - - 0 1");
+    }
+
+    @Test
+    @DisplayName("Other Material Is Not Covered")
+    public void otherMaterial() {
+        Assertions.assertNull(bitbases.probe(Fen.parse(Fen.START_POSITION)));
+        Assertions.assertNull(bitbases.probe(Fen.parse("k7/8/8/8/8/8/8/KN6 w - - 0 1")));
+    }
+
+    @Test
+    @DisplayName("File Round Trip")
+    public void fileRoundTrip() throws IOException {
+        Bitbase bitbase = Bitbase.load(directory.resolve(Ending.KPK.fileName()));
+        Assertions.assertEquals(Ending.KPK, bitbase.getEnding());
+        byte[] expected = results.get(Ending.KPK);
+        for (int index = 0; index < Ending.POSITIONS; index++) {
+            Assertions.assertEquals(expected[index], bitbase.get(index), "Position " + index);
+        }
+
+        Path bad = directory.resolve("bad.bitbase");
+        Files.write(bad, new byte[Bitbase.HEADER_SIZE + Ending.POSITIONS / 4]);
+        Assertions.assertThrows(IOException.class, () -> Bitbase.load(bad));
+        Files.delete(bad);
+    }
+
+    @Test
+    @DisplayName("Search Sees Drawn Ending")
+    public void searchSeesDraw() {
+        try (Engine engine = new Engine(1, 1, () -> new BitbaseEvaluator(bitbases, new ClassicalEvaluator()))) {
+            Assertions.assertEquals(0, engine.search(Fen.parse("k7/8/K7/P7/8/8/8/8 w - - 0 1"),
+                SearchLimits.depth(6)).score());
+            Assertions.assertTrue(engine.search(Fen.parse("8/8/8/4k3/8/8/4P3/4K3 w - - 0 1"),
+                SearchLimits.depth(4)).score() < BitbaseEvaluator.KNOWN_WIN);
+            Assertions.assertTrue(engine.search(Fen.parse("8/8/8/8/8/4k3/8/Q3K3 w - - 0 1"),
+                SearchLimits.depth(2)).score() > BitbaseEvaluator.KNOWN_WIN);
+        }
+    }
+
+    private static void assertOutcome(Bitbase.Outcome expected, String fen) {
+        Assertions.assertEquals(expected, bitbases.probe(Fen.parse(fen)), fen);
+    }
+}
@@ -0,0 +1,163 @@
+package chess.engine.book;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Fen;
+import chess.Move;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static chess.TestUtilities.move;
+
+public class OpeningBookTests {
+
+    private static final String GAMES = """
+        [Event "Ruy Lopez"]
+        [Result "1-0"]
+
+        1. e4 {best by test} e5 2. Nf3 (2. f4 exf4 3. Nf3) Nc6 3. Bb5 a6 $1 1-0
+
+        [Event "Queen's Gambit"]
+        [Result "1/2-1/2"]
+
+        1.d4 d5 2.c4 e6 1/2-1/2
+
+        [Event "Sicilian"]
+        [Result "0-1"]
+
+        1. e4 c5 2. Nf3 d6 ; a quiet line
+        0-1
+
+        [Event "Knights"]
+
+        1. d4 Nf6 2. Nf3 d5 3. Nbd2 *
+
+        [FEN "8/P7/8/8/8/8/8/k6K w - - 0 1"]
+
+        1. a8=Q+ *
+        """;
+
+    @Test
+    @DisplayName("Build And Look Up")
+    public void buildAndLookUp() throws IOException {
+        OpeningBook book = build(GAMES);
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        // Black won the second 1. e4 game, and the unfinished game counts for 1. d4
+        Assertions.assertEquals(List.of(new BookMove(move("d2", "d4"), 2), new BookMove(move("e2", "e4"), 2)),
+            book.lookup(game));
+
+        game.doMove(move("e2", "e4"));
+        // Black lost after 1...e5, so only the winning reply is in the book
+        Assertions.assertEquals(List.of(new BookMove(move("c7", "c5"), 2)), book.lookup(game));
+
+        game.doMove(move("e7", "e5"));
+        // The variation 2. f4 is not part of the main line
+        Assertions.assertEquals(List.of(new BookMove(move("g1", "f3"), 2)), book.lookup(game));
+    }
+
+    @Test
+    @DisplayName("Disambiguation And Promotion")
+    public void disambiguationAndPromotion() throws IOException {
+        OpeningBook book = build(GAMES);
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        for (String[] move : new String[][]{{"d2", "d4"}, {"g8", "f6"}, {"g1", "f3"}, {"d7", "d5"}}) {
+            game.doMove(move(move[0], move[1]));
+        }
+        Assertions.assertEquals(List.of(new BookMove(move("b1", "d2"), 1)), book.lookup(game));
+
+        ChessGame promotion = Fen.parse("8/P7/8/8/8/8/8/k6K w - - 0 1");
+        Assertions.assertEquals(List.of(new BookMove(Move.encode(Fen.parseSquare("a7"), Fen.parseSquare("a8"),
+            ChessPiece.PieceType.QUEEN), 1)), book.lookup(promotion));
+    }
+
+    @Test
+    @DisplayName("Weighted Pick")
+    public void weightedPick() throws IOException {
+        OpeningBook book = build(GAMES + "\n[Result \"1-0\"]\n1. e4 *\n1. e4 *\n");
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        Random random = new Random(21);
+        int e4 = 0;
+        for (int i = 0; i < 1000; i++) {
+            int move = book.pick(game, random);
+            Assertions.assertTrue(move == move("e2", "e4") || move == move("d2", "d4"));
+            if (move == move("e2", "e4")) {
+                e4++;
+            }
+        }
+        // e4 weighs 4 against d4's 2
+        Assertions.assertTrue(e4 > 600 && e4 < 730, "e4 was picked " + e4 + " times");
+        Assertions.assertEquals(Move.NONE, book.pick(Fen.parse("8/8/8/8/8/8/8/k6K w - - 0 1"), random));
+    }
+
+    @Test
+    @DisplayName("Binary Search Over Unsigned Keys")
+    public void binarySearch() throws IOException {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        Random random = new Random(21);
+        long[] keys = new long[100_001];
+        for (int i = 0; i < keys.length - 1; i++) {
+            keys[i] = random.nextLong();
+        }
+        keys[keys.length - 1] = PolyglotKey.of(game);
+        long[] sorted = Arrays.stream(keys).map(key -> key ^ Long.MIN_VALUE).sorted()
+            .map(key -> key ^ Long.MIN_VALUE).toArray();
+
+        Path file = Files.createTempFile("book", ".bin");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+                int e4 = OpeningBook.encodeMove(game.getBoard(), move("e2", "e4"));
+                for (long key : sorted) {
+                    out.writeLong(key);
+                    out.writeShort(e4);
+                    out.writeShort(1);
+                    out.writeInt(0);
+                }
+            }
+            OpeningBook book = OpeningBook.open(file);
+            Assertions.assertEquals(keys.length, book.size());
+            Assertions.assertEquals(List.of(new BookMove(move("e2", "e4"), 1)), book.lookup(game));
+
+            Files.write(file, new byte[OpeningBook.ENTRY_SIZE + 1]);
+            Assertions.assertThrows(IOException.class, () -> OpeningBook.open(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Castling Is Written As King Takes Rook")
+    public void castlingEncoding() {
+        ChessGame game = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        int kingside = move("e1", "g1");
+        int queenside = move("e1", "c1");
+        Assertions.assertEquals(Fen.parseSquare("e1") << 6 | Fen.parseSquare("h1"),
+            OpeningBook.encodeMove(game.getBoard(), kingside));
+        Assertions.assertEquals(kingside,
+            OpeningBook.decodeMove(game.getBoard(), OpeningBook.encodeMove(game.getBoard(), kingside)));
+        Assertions.assertEquals(queenside,
+            OpeningBook.decodeMove(game.getBoard(), OpeningBook.encodeMove(game.getBoard(), queenside)));
+    }
+
+    private static OpeningBook build(String pgn) throws IOException {
+        BookBuilder builder = new BookBuilder();
+        builder.addPgn(new StringReader(pgn));
+        Path file = Files.createTempFile("book", ".bin");
+        try {
+            builder.write(file);
+            return OpeningBook.open(file);
+        } finally {
+            // The mapping stays readable after the file is gone
+            Files.delete(file);
+        }
+    }
+}
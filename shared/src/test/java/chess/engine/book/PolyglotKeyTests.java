@@ -0,0 +1,64 @@
+package chess.engine.book;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Move;
+import chess.Notation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PolyglotKeyTests {
+
+    // The keys published with the Polyglot book format, after each move of two lines
+    private static final String[] LINE = {"e2e4", "d7d5", "e4e5", "f7f5", "e1e2", "e8f7"};
+    private static final long[] LINE_KEYS = {0x823C9B50FD114196L, 0x0756B94461C50FB0L, 0x662FAFB965DB29D4L,
+        0x22A48B5A8E47FF78L, 0x652A607CA3F242C1L, 0x00FDD303C946BDD9L};
+    private static final String[] CAPTURE_LINE = {"a2a4", "b7b5", "h2h4", "b5b4", "c2c4", "b4c3", "a1a3"};
+
+    private final Notation notation = new Notation();
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        Assertions.assertEquals(0x463B96181691FC9CL, PolyglotKey.of(Fen.parse(Fen.START_POSITION)));
+        Assertions.assertEquals(0x463B96181691FC9CL, PolyglotKey.of(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Published Lines")
+    public void publishedLines() {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        for (int i = 0; i < LINE.length; i++) {
+            play(game, LINE[i]);
+            Assertions.assertEquals(LINE_KEYS[i], PolyglotKey.of(game), LINE[i]);
+            Assertions.assertEquals(LINE_KEYS[i], PolyglotKey.of(Fen.parse(Fen.format(game))), Fen.format(game));
+        }
+
+        game = Fen.parse(Fen.START_POSITION);
+        for (int i = 0; i < 5; i++) {
+            play(game, CAPTURE_LINE[i]);
+        }
+        Assertions.assertEquals(0x3C8123EA7B067637L, PolyglotKey.of(game));
+        play(game, CAPTURE_LINE[5]);
+        play(game, CAPTURE_LINE[6]);
+        Assertions.assertEquals(0x5C3F9B829B279560L, PolyglotKey.of(game));
+    }
+
+    @Test
+    @DisplayName("En Passant Counts Only With A Capturing Pawn")
+    public void enPassantFile() {
+        // After 1. e4 no black pawn stands next to e4, so the file is left out
+        Assertions.assertEquals(PolyglotKey.of(Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1")),
+            PolyglotKey.of(Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1")));
+        // A pinned pawn still counts, since only legality is ignored
+        Assertions.assertNotEquals(PolyglotKey.of(Fen.parse("8/8/8/8/k2pP2R/8/8/4K3 b - - 0 1")),
+            PolyglotKey.of(Fen.parse("8/8/8/8/k2pP2R/8/8/4K3 b - e3 0 1")));
+    }
+
+    private void play(ChessGame game, String move) {
+        int parsed = notation.parseUci(game, move);
+        Assertions.assertNotEquals(Move.NONE, parsed, move);
+        game.doMove(parsed);
+    }
+}
@@ -0,0 +1,143 @@
+package chess.engine.nnue;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.Perft;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class NnueTests {
+
+    private static final Network NETWORK = randomNetwork(new Random(18), 32);
+
+    @Test
+    @DisplayName("Incremental Accumulators Match Refresh")
+    public void incrementalMatchesRefresh() {
+        ChessGame game = Fen.parse(Perft.SUITE.get(1).fen());
+        NnueEvaluator evaluator = new NnueEvaluator(NETWORK, new ScalarKernels());
+        NnueEvaluator fresh = new NnueEvaluator(NETWORK, new ScalarKernels());
+        evaluator.attach(game.getBoard());
+        Random random = new Random(18);
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < 400; ply++) {
+            moves.clear();
+            game.generateValidMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty() || ply % 7 == 6) {
+                game.undoMove();
+            } else {
+                game.doMove(moves.get(random.nextInt(moves.size())));
+            }
+            // The fresh evaluator is not attached, so it builds its accumulators from scratch
+            Assertions.assertEquals(fresh.evaluate(game), evaluator.evaluate(game), "Diverged after ply " + ply);
+        }
+        evaluator.detach();
+    }
+
+    @Test
+    @DisplayName("Vector Kernels Match Scalar Kernels")
+    public void vectorMatchesScalar() {
+        Kernels scalar = new ScalarKernels();
+        Kernels vector = new VectorKernels();
+        Random random = new Random(19);
+        // Odd lengths exercise the scalar tail of the vector loops
+        for (int length : new int[]{1, 7, 32, 64, 100}) {
+            short[] weights = new short[length + 3];
+            int[] wideWeights = new int[length + 3];
+            int[] input = new int[length];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = (short) random.nextInt();
+                wideWeights[i] = weights[i];
+            }
+            for (int i = 0; i < length; i++) {
+                input[i] = random.nextInt(Network.ACTIVATION_MAX + 1);
+            }
+            short[] expected = new short[length];
+            short[] actual = new short[length];
+            scalar.add(expected, weights, 3);
+            vector.add(actual, weights, 3);
+            scalar.subtract(expected, weights, 1);
+            vector.subtract(actual, weights, 1);
+            Assertions.assertArrayEquals(expected, actual, "Accumulators differ at length " + length);
+            Assertions.assertEquals(scalar.dot(input, wideWeights, 2, length), vector.dot(input, wideWeights, 2, length),
+                "Dot products differ at length " + length);
+        }
+
+        ChessGame game = Fen.parse(Perft.SUITE.get(5).fen());
+        Assertions.assertEquals(new NnueEvaluator(NETWORK, scalar).evaluate(game),
+            new NnueEvaluator(NETWORK, vector).evaluate(game));
+    }
+
+    @Test
+    @DisplayName("Save And Load Round Trip")
+    public void saveAndLoad() throws IOException {
+        Path file = Files.createTempFile("network", ".nnue");
+        try {
+            NETWORK.save(file);
+            Network loaded = Network.load(file);
+            Assertions.assertEquals(NETWORK.getAccumulatorSize(), loaded.getAccumulatorSize());
+            for (Perft.SuitePosition position : Perft.SUITE) {
+                ChessGame game = Fen.parse(position.fen());
+                Assertions.assertEquals(new NnueEvaluator(NETWORK).evaluate(game),
+                    new NnueEvaluator(loaded).evaluate(game), position.name());
+            }
+
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+            Assertions.assertThrows(IOException.class, () -> Network.load(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Search With Network")
+    public void searchWithNetwork() {
+        ChessGame game = Fen.parse(Fen.START_POSITION);
+        try (Engine engine = new Engine(1, 1, () -> new NnueEvaluator(NETWORK))) {
+            SearchResult result = engine.search(game, SearchLimits.depth(3));
+            MoveList moves = new MoveList();
+            game.generateValidMoves(game.getTeamTurn(), moves);
+            Assertions.assertTrue(moves.contains(result.bestMove()), "Best move is not legal");
+            Assertions.assertTrue(Math.abs(result.score()) <= NnueEvaluator.MAX_SCORE);
+        }
+        Assertions.assertEquals(Fen.START_POSITION, Fen.format(game), "Search did not restore the position");
+    }
+
+    private static Network randomNetwork(Random random, int size) {
+        short[] featureBiases = new short[size];
+        short[] featureWeights = new short[Network.FEATURES * size];
+        int[] hidden1Weights = new int[Network.HIDDEN_SIZE * 2 * size];
+        int[] hidden1Biases = new int[Network.HIDDEN_SIZE];
+        int[] hidden2Weights = new int[Network.HIDDEN_SIZE * Network.HIDDEN_SIZE];
+        int[] hidden2Biases = new int[Network.HIDDEN_SIZE];
+        int[] outputWeights = new int[Network.HIDDEN_SIZE];
+        for (int i = 0; i < size; i++) {
+            featureBiases[i] = (short) random.nextInt(64);
+        }
+        for (int i = 0; i < featureWeights.length; i++) {
+            featureWeights[i] = (short) (random.nextInt(33) - 16);
+        }
+        fill(random, hidden1Weights, 64);
+        fill(random, hidden1Biases, 256);
+        fill(random, hidden2Weights, 64);
+        fill(random, hidden2Biases, 256);
+        fill(random, outputWeights, 64);
+        return new Network(size, featureBiases, featureWeights, hidden1Weights, hidden1Biases,
+            hidden2Weights, hidden2Biases, outputWeights, random.nextInt(512) - 256);
+    }
+
+    private static void fill(Random random, int[] values, int bound) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(2 * bound + 1) - bound;
+        }
+    }
+}